@@ -0,0 +1,146 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares doc.toObject(ClothingItem.class) with ClothingItemMapper on a 500-item
+ * category. The documents are written to an offline, throw-away Firestore instance and
+ * read back from its local cache, so the test needs no network and leaves nothing
+ * behind in the real project.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ClothingItemMapperBenchmark {
+
+    private static final String TAG = "MapperBenchmark";
+
+    private static final int ITEMS = 500;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    private FirebaseApp app;
+    private FirebaseFirestore db;
+    private List<DocumentSnapshot> docs;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseOptions options = FirebaseApp.getInstance().getOptions();
+        app = FirebaseApp.initializeApp(context, options, "mapper-benchmark");
+        db = FirebaseFirestore.getInstance(app);
+        Tasks.await(db.disableNetwork());
+
+        // Offline writes never complete, but they are visible in the local cache at once.
+        CollectionReference clothes = db.collection("MapperBenchmark");
+        for (int i = 0; i < ITEMS; i++) {
+            clothes.document(String.format("item%04d", i)).set(sampleItem(i));
+        }
+        docs = Tasks.await(clothes.get(Source.CACHE)).getDocuments();
+        assertEquals(ITEMS, docs.size());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Tasks.await(db.terminate());
+        Tasks.await(db.clearPersistence());
+        app.delete();
+    }
+
+    @Test
+    public void mapperMatchesToObject() {
+        for (DocumentSnapshot doc : docs) {
+            ClothingItem expected = doc.toObject(ClothingItem.class);
+            ClothingItem actual = ClothingItemMapper.fromSnapshot(doc);
+            expected.setId(doc.getId());
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void mapperIsFasterThanToObject() {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapWithToObject();
+            mapWithMapper();
+        }
+
+        long[] toObject = new long[ROUNDS];
+        long[] mapper = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            toObject[i] = mapWithToObject();
+            mapper[i] = mapWithMapper();
+        }
+
+        long toObjectMedian = median(toObject);
+        long mapperMedian = median(mapper);
+        Log.i(TAG, ITEMS + " items: toObject " + toObjectMedian / 1000 + " us, mapper "
+                + mapperMedian / 1000 + " us (median of " + ROUNDS + ")");
+        assertTrue("Mapper should beat toObject", mapperMedian < toObjectMedian);
+    }
+
+    private long mapWithToObject() {
+        long start = System.nanoTime();
+        for (DocumentSnapshot doc : docs) {
+            ClothingItem item = doc.toObject(ClothingItem.class);
+            item.setId(doc.getId());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long mapWithMapper() {
+        long start = System.nanoTime();
+        for (DocumentSnapshot doc : docs) {
+            ClothingItemMapper.fromSnapshot(doc);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static Map<String, Object> sampleItem(int i) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("Name", "Shirt " + i);
+        item.put("Category", "Shirts");
+        item.put("Fabric", i % 2 == 0 ? "Cotton" : "Linen");
+        item.put("Fit", "Regular");
+        item.put("Care", "Machine wash cold");
+        List<String> images = new ArrayList<>();
+        for (int j = 0; j < 4; j++) images.add("https://example.com/img/" + i + "_" + j + ".jpg");
+        item.put("Images", images);
+        item.put("Sizes", Arrays.asList("S", "M", "L", "XL"));
+        item.put("Views", i * 3);
+        item.put("Likes", i % 17);
+        item.put("dateAdded", Timestamp.now());
+        item.put("updatedAt", Timestamp.now());
+        return item;
+    }
+}
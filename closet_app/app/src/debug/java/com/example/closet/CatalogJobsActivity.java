@@ -0,0 +1,110 @@
+package com.example.closet;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+/**
+ * Catalog maintenance jobs, in debug builds only. A job runs on a device or emulator
+ * with the app's own Firebase credentials and is started by name from the host:
+ *
+ *   adb shell am start -n com.example.closet/.CatalogJobsActivity --es job reconcileLikes
+ *
+ * Jobs: migrateFavourites, reconcileLikes, buildSummaries, buildLeaderboards and
+ * indexSearchTokens. Add --ez emulator true to run against the local Firestore emulator
+ * instead of the live project. The outcome is shown on screen and logged under this
+ * class's tag.
+ *
+ * Leaderboards are only trusted for LeaderboardBuilder.MAX_AGE_MS, so the command above
+ * with job buildLeaderboards should run hourly from a cron job on the machine the
+ * device is attached to.
+ */
+public class CatalogJobsActivity extends AppCompatActivity {
+
+    private static final String TAG = "CatalogJobsActivity";
+
+    private static final String EMULATOR_APP = "catalog-jobs-emulator";
+
+    private static FirebaseFirestore emulatorDb;
+
+    private TextView status;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        status = new TextView(this);
+        int padding = Math.round(16 * getResources().getDisplayMetrics().density);
+        status.setPadding(padding, padding, padding, padding);
+        setContentView(status);
+
+        String job = getIntent().getStringExtra("job");
+        if (savedInstanceState != null) {
+            // The job kept running across the recreation; only its log shows the outcome.
+            report(job + " is still running; see logcat");
+            return;
+        }
+
+        FirebaseFirestore db = getIntent().getBooleanExtra("emulator", false)
+                ? emulatorDb()
+                : FirebaseFirestore.getInstance();
+        Task<String> run = start(job, db);
+        if (run == null) {
+            report("Unknown job: " + job);
+            return;
+        }
+        report("Running " + job + "…");
+        run.addOnSuccessListener(result -> report(job + " " + result))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, job + " failed", e);
+                    report(job + " failed: " + e.getMessage());
+                });
+    }
+
+    /** Starts the named job; the task resolves to a summary of what it did. */
+    private Task<String> start(String job, FirebaseFirestore db) {
+        if ("migrateFavourites".equals(job)) {
+            return new FavouritesMigration(db).run()
+                    .onSuccessTask(moved -> Tasks.forResult("moved " + moved + " items"));
+        } else if ("reconcileLikes".equals(job)) {
+            return new LikesReconciler(db).run()
+                    .onSuccessTask(fixed -> Tasks.forResult("fixed " + fixed + " items"));
+        } else if ("buildSummaries".equals(job)) {
+            return new SummaryIndexer(db).run()
+                    .onSuccessTask(changed -> Tasks.forResult("changed " + changed + " summaries"));
+        } else if ("buildLeaderboards".equals(job)) {
+            return new LeaderboardBuilder(db).run()
+                    .onSuccessTask(done -> Tasks.forResult("done"));
+        } else if ("indexSearchTokens".equals(job)) {
+            return new SearchTokensIndexer(db).run()
+                    .onSuccessTask(written -> Tasks.forResult("updated " + written + " items"));
+        }
+        return null;
+    }
+
+    private void report(String message) {
+        Log.i(TAG, message);
+        status.setText(message);
+    }
+
+    /**
+     * A Firestore instance on a named FirebaseApp pointed at the emulator. The default
+     * instance can't be used: ClosetApplication has already started it by now.
+     */
+    private FirebaseFirestore emulatorDb() {
+        if (emulatorDb == null) {
+            FirebaseApp app = FirebaseApp.initializeApp(getApplicationContext(),
+                    FirebaseApp.getInstance().getOptions(), EMULATOR_APP);
+            emulatorDb = FirebaseFirestore.getInstance(app);
+            // 10.0.2.2 is the host machine as seen from the Android emulator.
+            emulatorDb.useEmulator("10.0.2.2", 8080);
+        }
+        return emulatorDb;
+    }
+}
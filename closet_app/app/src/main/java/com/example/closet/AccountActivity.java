@@ -119,7 +119,10 @@ public class AccountActivity extends AppCompatActivity {
 
         // Logout
         btnLogout.setOnClickListener(v -> {
+            LikeQueue.getInstance().signOut();
             mAuth.signOut();
+            ClothingRepository.getInstance().clear();
+            TopPicksManager.clear();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
         });
@@ -139,7 +142,10 @@ public class AccountActivity extends AppCompatActivity {
         user.delete().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
                 Toast.makeText(this, "Account deleted.", Toast.LENGTH_SHORT).show();
+                LikeQueue.getInstance().signOut();
                 mAuth.signOut();
+                ClothingRepository.getInstance().clear();
+                TopPicksManager.clear();
                 startActivity(new Intent(this, LoginActivity.class));
                 finish();
             } else {
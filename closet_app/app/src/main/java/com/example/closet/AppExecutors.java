@@ -0,0 +1,37 @@
+package com.example.closet;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared executors for work that must stay off the UI thread.
+ * Firestore results are handed to {@link #background()} with
+ * addOnSuccessListener(executor, ...) / addSnapshotListener(executor, ...), parsed and
+ * filtered there, and only the finished list is posted back with {@link #mainThread()}.
+ * The background executor is a single thread, so results are processed in the order
+ * Firestore delivered them.
+ */
+public final class AppExecutors {
+
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "closet-background"));
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN_THREAD = MAIN::post;
+
+    private AppExecutors() {
+    }
+
+    /** Parses snapshots and builds result lists. */
+    public static Executor background() {
+        return BACKGROUND;
+    }
+
+    /** Posts to the UI thread. */
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+}
@@ -16,7 +16,6 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 import com.squareup.picasso.Picasso;
 
 import java.util.ArrayList;
@@ -122,33 +121,40 @@ public class AvatarActivity extends AppCompatActivity {
     }
 
     private void setupChooser(String category, ImageView targetImg) {
-        targetImg.setOnClickListener(v -> {
-            Query q = db.collection("Clothes")
-                    .whereEqualTo("Category", category)
-                    .whereArrayContains("likedUsers", currentUserId);
-
-            q.get().addOnSuccessListener(snapshot -> {
-                List<ClothingItem> items = snapshot.toObjects(ClothingItem.class);
-                List<String> names = new ArrayList<>();
-                names.add("None");
-                for (ClothingItem ci : items) names.add(ci.getName());
-
-                new AlertDialog.Builder(this)
-                        .setTitle("Select " + category)
-                        .setItems(names.toArray(new String[0]), (DialogInterface dlg, int which) -> {
-                            if (which == 0) {
-                                targetImg.setImageResource(R.drawable.ic_add);
-                                saveSelectedUrl(category, null);
-                            } else {
-                                ClothingItem sel = items.get(which - 1);
-                                String url = sel.getImages().get(0);
-                                Picasso.get().load(url).fit().centerCrop().into(targetImg);
-                                saveSelectedUrl(category, url);
-                            }
-                        })
-                        .show();
-            });
-        });
+        targetImg.setOnClickListener(v -> ClothingRepository.getInstance().getFavouritesInCategory(
+                category, currentUserId, new ClothingRepository.ItemsCallback() {
+                    @Override
+                    public void onItemsLoaded(List<ClothingItem> items) {
+                        showChooser(category, targetImg, items);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Toast.makeText(AvatarActivity.this,
+                                "Failed to load " + category, Toast.LENGTH_SHORT).show();
+                    }
+                }));
+    }
+
+    private void showChooser(String category, ImageView targetImg, List<ClothingItem> items) {
+        List<String> names = new ArrayList<>();
+        names.add("None");
+        for (ClothingItem ci : items) names.add(ci.getName());
+
+        new AlertDialog.Builder(this)
+                .setTitle("Select " + category)
+                .setItems(names.toArray(new String[0]), (DialogInterface dlg, int which) -> {
+                    if (which == 0) {
+                        targetImg.setImageResource(R.drawable.ic_add);
+                        saveSelectedUrl(category, null);
+                    } else {
+                        ClothingItem sel = items.get(which - 1);
+                        String url = sel.getImages().get(0);
+                        Picasso.get().load(url).fit().centerCrop().into(targetImg);
+                        saveSelectedUrl(category, url);
+                    }
+                })
+                .show();
     }
 
     private void saveSelectedUrl(String category, String url) {
@@ -0,0 +1,200 @@
+package com.example.closet;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import com.google.firebase.Timestamp;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * On-device copy of the "ClothesSummary" collection (see CatalogSummary) so a cold
+ * start can render list screens from disk. One row per item summary; list fields are
+ * stored as JSON arrays and timestamps as epoch millis. A small key/value table keeps
+ * the sync watermarks.
+ *
+ * Every method does disk I/O and must be called off the main thread.
+ */
+public class CatalogStore extends SQLiteOpenHelper {
+
+    private static final String TAG = "CatalogStore";
+
+    private static final String DB_NAME = "catalog.db";
+    private static final int DB_VERSION = 3;
+
+    private static final String TABLE_CLOTHES = "clothes";
+    private static final String TABLE_META = "sync_meta";
+
+    /** Highest dateAdded/updatedAt seen from the server, in millis. */
+    public static final String META_WATERMARK = "watermark";
+    /** Device time of the last full download, in millis. */
+    public static final String META_LAST_FULL_SYNC = "last_full_sync";
+
+    public CatalogStore(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_CLOTHES + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "name TEXT, "
+                + "category TEXT, "
+                + "fabric TEXT, "
+                + "fit TEXT, "
+                + "care TEXT, "
+                + "images TEXT, "
+                + "sizes TEXT, "
+                + "views INTEGER NOT NULL DEFAULT 0, "
+                + "likes INTEGER NOT NULL DEFAULT 0, "
+                + "date_added INTEGER, "
+                + "updated_at INTEGER)");
+        db.execSQL("CREATE INDEX idx_clothes_category ON " + TABLE_CLOTHES + " (category)");
+        db.execSQL("CREATE TABLE " + TABLE_META + " (key TEXT PRIMARY KEY, value INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The store is only a cache of Firestore, so it is simply rebuilt.
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_CLOTHES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    /** Reads every stored item. */
+    public List<ClothingItem> loadAll() {
+        List<ClothingItem> items = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().query(TABLE_CLOTHES,
+                null, null, null, null, null, "id")) {
+            while (c.moveToNext()) {
+                items.add(fromCursor(c));
+            }
+        }
+        return items;
+    }
+
+    /** Inserts or replaces the given items in one transaction. */
+    public void upsertAll(Collection<ClothingItem> items) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (ClothingItem item : items) {
+                db.insertWithOnConflict(TABLE_CLOTHES, null, toValues(item),
+                        SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Replaces the whole table, used after a full download so deleted items disappear. */
+    public void replaceAll(Collection<ClothingItem> items) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_CLOTHES, null, null);
+            for (ClothingItem item : items) {
+                db.insert(TABLE_CLOTHES, null, toValues(item));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public long getMeta(String key) {
+        try (Cursor c = getReadableDatabase().query(TABLE_META, new String[]{"value"},
+                "key = ?", new String[]{key}, null, null, null)) {
+            return c.moveToFirst() ? c.getLong(0) : 0L;
+        }
+    }
+
+    public void setMeta(String key, long value) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        getWritableDatabase().insertWithOnConflict(TABLE_META, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public void clear() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.delete(TABLE_CLOTHES, null, null);
+        db.delete(TABLE_META, null, null);
+    }
+
+    // ─── Row mapping ───
+
+    private static ContentValues toValues(ClothingItem item) {
+        ContentValues values = new ContentValues();
+        values.put("id", item.getId());
+        values.put("name", item.getName());
+        values.put("category", item.getCategory());
+        values.put("fabric", item.getFabric());
+        values.put("fit", item.getFit());
+        values.put("care", item.getCare());
+        values.put("images", toJson(item.getImages()));
+        values.put("sizes", toJson(item.getSizes()));
+        values.put("views", item.getViews());
+        values.put("likes", item.getLikes());
+        values.put("date_added", toMillis(item.getDateAdded()));
+        values.put("updated_at", toMillis(item.getUpdatedAt()));
+        return values;
+    }
+
+    private static ClothingItem fromCursor(Cursor c) {
+        ClothingItem item = new ClothingItem();
+        item.setId(c.getString(c.getColumnIndexOrThrow("id")));
+        item.setName(c.getString(c.getColumnIndexOrThrow("name")));
+        item.setCategory(c.getString(c.getColumnIndexOrThrow("category")));
+        item.setFabric(c.getString(c.getColumnIndexOrThrow("fabric")));
+        item.setFit(c.getString(c.getColumnIndexOrThrow("fit")));
+        item.setCare(c.getString(c.getColumnIndexOrThrow("care")));
+        item.setImages(fromJson(c.getString(c.getColumnIndexOrThrow("images"))));
+        item.setSizes(fromJson(c.getString(c.getColumnIndexOrThrow("sizes"))));
+        item.setViews(c.getInt(c.getColumnIndexOrThrow("views")));
+        item.setLikes(c.getInt(c.getColumnIndexOrThrow("likes")));
+        item.setDateAdded(fromMillis(c, c.getColumnIndexOrThrow("date_added")));
+        item.setUpdatedAt(fromMillis(c, c.getColumnIndexOrThrow("updated_at")));
+        item.setSummary(true);
+        item.getSearchKey();
+        return item;
+    }
+
+    private static String toJson(List<String> list) {
+        return list != null ? new JSONArray(list).toString() : null;
+    }
+
+    private static List<String> fromJson(String json) {
+        List<String> list = new ArrayList<>();
+        if (json == null) return list;
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                list.add(array.getString(i));
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "Corrupt list column: " + json, e);
+        }
+        return list;
+    }
+
+    private static Long toMillis(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toDate().getTime() : null;
+    }
+
+    private static Timestamp fromMillis(Cursor c, int column) {
+        return c.isNull(column) ? null : new Timestamp(new Date(c.getLong(column)));
+    }
+}
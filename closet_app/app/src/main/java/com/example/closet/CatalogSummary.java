@@ -0,0 +1,99 @@
+package com.example.closet;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slim projection of a "Clothes" document, stored in the parallel "ClothesSummary"
+ * collection under the same document ID. It holds what list screens render or search
+ * on or filter by (Name, Category, Fabric, Fit, Care, Sizes, first image, Views, Likes,
+ * dateAdded) and leaves out the full Images list, so a list of N items costs N small
+ * documents. Only DetailsActivity reads the full document.
+ *
+ * Summaries are written by SummaryIndexer (catalog edits) and alongside the parent
+ * field whenever a ShardedCounter is rolled up or reset (Views, Likes). Every write
+ * bumps updatedAt so CatalogSync's delta sync picks it up.
+ */
+public final class CatalogSummary {
+
+    public static final String COLLECTION = "ClothesSummary";
+
+    private static final String IMAGE = "Image";
+
+    private CatalogSummary() {
+    }
+
+    public static DocumentReference summary(FirebaseFirestore db, String itemId) {
+        return db.collection(COLLECTION).document(itemId);
+    }
+
+    /**
+     * Reads the summaries of the given items, in the same order; a summary that
+     * doesn't exist (yet) comes back with exists() false.
+     */
+    public static Task<List<DocumentSnapshot>> summariesOf(FirebaseFirestore db,
+                                                           List<DocumentSnapshot> items) {
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>(items.size());
+        for (DocumentSnapshot item : items) {
+            reads.add(summary(db, item.getId()).get());
+        }
+        return Tasks.whenAllSuccess(reads);
+    }
+
+    /** Summary fields for a full "Clothes" document, without updatedAt. */
+    public static Map<String, Object> fieldsOf(DocumentSnapshot item) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("Name", item.getString("Name"));
+        fields.put("Category", item.getString("Category"));
+        fields.put("Fabric", item.getString("Fabric"));
+        fields.put("Fit", item.getString("Fit"));
+        fields.put("Care", item.getString("Care"));
+        List<?> sizes = (List<?>) item.get("Sizes");
+        fields.put("Sizes", sizes != null ? sizes : Collections.emptyList());
+        List<?> images = (List<?>) item.get("Images");
+        fields.put(IMAGE, images != null && !images.isEmpty() ? images.get(0) : null);
+        fields.put(ShardedCounter.VIEWS, countOf(item, ShardedCounter.VIEWS));
+        fields.put(ShardedCounter.LIKES, countOf(item, ShardedCounter.LIKES));
+        fields.put("dateAdded", item.getTimestamp("dateAdded"));
+        return fields;
+    }
+
+    /** Merge update that sets one counter on the summary. */
+    public static Map<String, Object> counterUpdate(String field, long total) {
+        Map<String, Object> update = new HashMap<>();
+        update.put(field, total);
+        update.put("updatedAt", FieldValue.serverTimestamp());
+        return update;
+    }
+
+    /** Builds a summary-only ClothingItem; {@link ClothingItem#isSummary()} is set. */
+    public static ClothingItem toItem(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return toItem(doc.getId(), data != null ? data : Collections.emptyMap());
+    }
+
+    /** As above, for summary fields embedded in another document (e.g. a leaderboard). */
+    public static ClothingItem toItem(String id, Map<String, Object> data) {
+        // A summary uses the full document's field names, minus Images plus Image.
+        ClothingItem item = ClothingItemMapper.fromMap(id, data);
+        Object image = data.get(IMAGE);
+        item.setImages(ClothingItemMapper.singleton(image instanceof String ? (String) image : null));
+        item.setSummary(true);
+        return item;
+    }
+
+    private static long countOf(DocumentSnapshot doc, String field) {
+        Long value = doc.getLong(field);
+        return value != null ? value : 0L;
+    }
+}
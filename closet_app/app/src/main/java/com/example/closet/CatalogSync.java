@@ -0,0 +1,136 @@
+package com.example.closet;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the CatalogStore in step with the "ClothesSummary" collection.
+ * The first run (and one run a week, to pick up deletions) downloads the whole
+ * collection. Every other run only asks for documents whose dateAdded or updatedAt
+ * is newer than the highest value seen so far, so an unchanged catalog costs no reads.
+ */
+public class CatalogSync {
+
+    private static final String TAG = "CatalogSync";
+
+    private static final long FULL_SYNC_INTERVAL_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    public interface Listener {
+        /** Called on the main thread with every item that was added or changed. */
+        void onSynced(List<ClothingItem> changed, boolean fullSync);
+        void onError(Exception e);
+    }
+
+    private final FirebaseFirestore db;
+    private final CatalogStore store;
+    private final Executor diskExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public CatalogSync(FirebaseFirestore db, CatalogStore store, Executor diskExecutor) {
+        this.db = db;
+        this.store = store;
+        this.diskExecutor = diskExecutor;
+    }
+
+    public void run(Listener listener) {
+        diskExecutor.execute(() -> {
+            long watermark = store.getMeta(CatalogStore.META_WATERMARK);
+            long lastFull = store.getMeta(CatalogStore.META_LAST_FULL_SYNC);
+            boolean full = watermark == 0
+                    || System.currentTimeMillis() - lastFull > FULL_SYNC_INTERVAL_MS;
+            mainHandler.post(() -> {
+                if (full) {
+                    fullSync(listener);
+                } else {
+                    deltaSync(watermark, listener);
+                }
+            });
+        });
+    }
+
+    private void fullSync(Listener listener) {
+        db.collection(CatalogSummary.COLLECTION).get()
+                // Parsed and stored on the disk thread; only the result goes back to the UI thread.
+                .addOnSuccessListener(diskExecutor, snapshot -> {
+                    List<ClothingItem> items = toItems(snapshot.getDocuments());
+                    long watermark = maxTimestamp(items, 0L);
+                    store.replaceAll(items);
+                    store.setMeta(CatalogStore.META_WATERMARK, watermark);
+                    store.setMeta(CatalogStore.META_LAST_FULL_SYNC, System.currentTimeMillis());
+                    Log.d(TAG, "Full sync stored " + items.size() + " items");
+                    mainHandler.post(() -> listener.onSynced(items, true));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Full sync failed", e);
+                    listener.onError(e);
+                });
+    }
+
+    private void deltaSync(long watermark, Listener listener) {
+        Timestamp since = new Timestamp(new Date(watermark));
+        Task<QuerySnapshot> added = db.collection(CatalogSummary.COLLECTION)
+                .whereGreaterThan("dateAdded", since)
+                .get();
+        Task<QuerySnapshot> updated = db.collection(CatalogSummary.COLLECTION)
+                .whereGreaterThan("updatedAt", since)
+                .get();
+
+        Tasks.whenAllSuccess(added, updated)
+                .addOnSuccessListener(diskExecutor, results -> {
+                    // A document can match both queries; keep one copy per ID.
+                    Map<String, DocumentSnapshot> docs = new LinkedHashMap<>();
+                    for (Object result : results) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            docs.put(doc.getId(), doc);
+                        }
+                    }
+                    List<ClothingItem> items = toItems(new ArrayList<>(docs.values()));
+                    long newWatermark = maxTimestamp(items, watermark);
+                    if (!items.isEmpty()) store.upsertAll(items);
+                    store.setMeta(CatalogStore.META_WATERMARK, newWatermark);
+                    Log.d(TAG, "Delta sync stored " + items.size() + " changed items");
+                    mainHandler.post(() -> listener.onSynced(items, false));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Delta sync failed", e);
+                    listener.onError(e);
+                });
+    }
+
+    private static List<ClothingItem> toItems(List<DocumentSnapshot> docs) {
+        List<ClothingItem> items = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            items.add(CatalogSummary.toItem(doc));
+        }
+        return items;
+    }
+
+    /** Server-side timestamps only, so a skewed device clock can't skip changes. */
+    private static long maxTimestamp(List<ClothingItem> items, long current) {
+        long max = current;
+        for (ClothingItem item : items) {
+            if (item.getDateAdded() != null) {
+                max = Math.max(max, item.getDateAdded().toDate().getTime());
+            }
+            if (item.getUpdatedAt() != null) {
+                max = Math.max(max, item.getUpdatedAt().toDate().getTime());
+            }
+        }
+        return max;
+    }
+}
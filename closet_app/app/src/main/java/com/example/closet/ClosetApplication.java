@@ -0,0 +1,52 @@
+package com.example.closet;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * Application entry point. Warms the shared ClothingRepository from the on-device
+ * catalog, and the search suggestions from their saved trie, before the first screen
+ * needs them, and tells the write-behind buffers when the app moves between
+ * foreground and background.
+ */
+public class ClosetApplication extends Application {
+
+    private int startedActivities = 0;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        SuggestionStore.getInstance().init(this);
+        ClothingRepository.getInstance().init(this);
+        CounterRollup.getInstance().init(this);
+        ViewCountBuffer.getInstance().init(this);
+        LikeQueue.getInstance().init(this);
+
+        registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityStarted(Activity activity) {
+                if (startedActivities++ == 0) {
+                    ViewCountBuffer.getInstance().onForeground();
+                }
+            }
+
+            @Override
+            public void onActivityStopped(Activity activity) {
+                // Screens hand over to each other (start next, then stop previous),
+                // so zero started activities means the whole app went to the background.
+                if (--startedActivities == 0) {
+                    ViewCountBuffer.getInstance().onBackground();
+                    LikeQueue.getInstance().flushNow();
+                    CounterRollup.getInstance().runIfDue();
+                }
+            }
+
+            @Override public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+            @Override public void onActivityResumed(Activity activity) {}
+            @Override public void onActivityPaused(Activity activity) {}
+            @Override public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+            @Override public void onActivityDestroyed(Activity activity) {}
+        });
+    }
+}
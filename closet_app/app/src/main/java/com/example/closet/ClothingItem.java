@@ -1,6 +1,7 @@
 package com.example.closet;
 
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.PropertyName;
 
 import java.util.ArrayList;
@@ -23,9 +24,6 @@ public class ClothingItem {
     // Firestore field: "images" (List of URL strings)
     private List<String> images;
 
-    // Firestore field: "likedUsers" (List of UIDs who have liked this item)
-    private List<String> likedUsers;
-
     // Firestore fields for tracking inventory/metrics
     private List<String> sizes;
     private int views;
@@ -36,14 +34,22 @@ public class ClothingItem {
     // Firestore field: "dateAdded" (will be a Timestamp in Firestore)
     private com.google.firebase.Timestamp dateAdded;
 
-    // This field is not stored in Firestore—it’s set locally based on the current user.
+    // Firestore field: "updatedAt" (server timestamp of the last write, drives delta sync)
+    private com.google.firebase.Timestamp updatedAt;
+
+    // This field is not stored in Firestore—it’s set locally from the user's favourites index.
     private boolean likedByCurrentUser = false;
 
+    // Not stored in Firestore—true when built from a CatalogSummary (first image only).
+    private boolean summary = false;
+
+    // Not stored in Firestore—SearchText key of the searchable fields, built on first use.
+    private String searchKey;
+
     /** Default constructor required for Firestore deserialization */
     public ClothingItem() {
         // Initialize lists so we don’t get NullPointerExceptions
         this.images = new ArrayList<>();
-        this.likedUsers = new ArrayList<>();
         this.sizes = new ArrayList<>();
     }
 
@@ -64,7 +70,6 @@ public class ClothingItem {
         this.care = care;
         this.images = (images != null ? images : new ArrayList<>());
         this.sizes = (sizes != null ? sizes : new ArrayList<>());
-        this.likedUsers = new ArrayList<>();
         this.views = 0;
         this.likes = 0;
 
@@ -92,6 +97,7 @@ public class ClothingItem {
     @PropertyName("Name")
     public void setName(String name) {
         this.name = name;
+        this.searchKey = null;
     }
 
     /** Firestore field: "Category" */
@@ -103,6 +109,7 @@ public class ClothingItem {
     @PropertyName("Category")
     public void setCategory(String category) {
         this.category = category;
+        this.searchKey = null;
     }
 
     /** Firestore field: "Fabric" */
@@ -114,6 +121,7 @@ public class ClothingItem {
     @PropertyName("Fabric")
     public void setFabric(String fabric) {
         this.fabric = fabric;
+        this.searchKey = null;
     }
 
     /** Firestore field: "Fit" */
@@ -125,6 +133,7 @@ public class ClothingItem {
     @PropertyName("Fit")
     public void setFit(String fit) {
         this.fit = fit;
+        this.searchKey = null;
     }
 
     /** Firestore field: "Care" */
@@ -136,6 +145,7 @@ public class ClothingItem {
     @PropertyName("Care")
     public void setCare(String care) {
         this.care = care;
+        this.searchKey = null;
     }
 
     /** Firestore field: "Images" (an array of URL strings) */
@@ -149,17 +159,6 @@ public class ClothingItem {
         this.images = images;
     }
 
-    /** Firestore field: "likedUsers" (list of UIDs who have liked this item) */
-    @PropertyName("likedUsers")
-    public List<String> getLikedUsers() {
-        return likedUsers;
-    }
-
-    @PropertyName("likedUsers")
-    public void setLikedUsers(List<String> likedUsers) {
-        this.likedUsers = likedUsers;
-    }
-
     /** Firestore field: "Sizes" (list of strings) */
     @PropertyName("Sizes")
     public List<String> getSizes() {
@@ -203,6 +202,14 @@ public class ClothingItem {
         this.dateAdded = dateAdded;
     }
 
+    public com.google.firebase.Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(com.google.firebase.Timestamp updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     /** Not stored in Firestore—tracks whether the current user has liked this item */
     public boolean isLikedByCurrentUser() {
         return likedByCurrentUser;
@@ -212,6 +219,31 @@ public class ClothingItem {
         this.likedByCurrentUser = likedByCurrentUser;
     }
 
+    /** Not stored in Firestore—whether this is a CatalogSummary rather than the full document */
+    @Exclude
+    public boolean isSummary() {
+        return summary;
+    }
+
+    @Exclude
+    public void setSummary(boolean summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * Not stored in Firestore—Name, Fabric, Fit, Care and Category in SearchText form,
+     * one per line. Parsers build it while loading so filtering never has to.
+     */
+    @Exclude
+    public String getSearchKey() {
+        String key = searchKey;
+        if (key == null) {
+            key = SearchText.key(name, fabric, fit, care, category);
+            searchKey = key;
+        }
+        return key;
+    }
+
     @Override
     public String toString() {
         return "ClothingItem{" +
@@ -222,12 +254,13 @@ public class ClothingItem {
                 ", fit='" + fit + '\'' +
                 ", care='" + care + '\'' +
                 ", images=" + images +
-                ", likedUsers=" + likedUsers +
                 ", sizes=" + sizes +
                 ", views=" + views +
                 ", likes=" + likes +
                 ", dateAdded=" + dateAdded +
+                ", updatedAt=" + updatedAt +
                 ", likedByCurrentUser=" + likedByCurrentUser +
+                ", summary=" + summary +
                 '}';
     }
 
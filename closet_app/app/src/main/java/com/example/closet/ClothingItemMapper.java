@@ -0,0 +1,79 @@
+package com.example.closet;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written replacement for doc.toObject(ClothingItem.class).
+ * toObject walks ClothingItem with reflection and resolves every @PropertyName on
+ * each call; this reads the snapshot's data map once and calls the setters directly,
+ * which is several times faster for a full category (see ClothingItemMapperBenchmark).
+ * Field names must be kept in step with the @PropertyName annotations on ClothingItem.
+ */
+public final class ClothingItemMapper {
+
+    private ClothingItemMapper() {
+    }
+
+    /** Maps a "Clothes" document, or returns null if it doesn't exist. */
+    public static ClothingItem fromSnapshot(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    /** Maps the fields of a "Clothes" document; missing fields keep ClothingItem's defaults. */
+    public static ClothingItem fromMap(String id, Map<String, Object> data) {
+        ClothingItem item = new ClothingItem();
+        item.setId(id);
+        item.setName(string(data, "Name"));
+        item.setCategory(string(data, "Category"));
+        item.setFabric(string(data, "Fabric"));
+        item.setFit(string(data, "Fit"));
+        item.setCare(string(data, "Care"));
+        item.setImages(strings(data, "Images"));
+        item.setSizes(strings(data, "Sizes"));
+        item.setViews(integer(data, ShardedCounter.VIEWS));
+        item.setLikes(integer(data, ShardedCounter.LIKES));
+        item.setDateAdded(timestamp(data, "dateAdded"));
+        item.setUpdatedAt(timestamp(data, "updatedAt"));
+        // Built here, off the main thread, instead of on the first keystroke.
+        item.getSearchKey();
+        return item;
+    }
+
+    private static String string(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static List<String> strings(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (!(value instanceof List)) return new ArrayList<>();
+        List<?> list = (List<?>) value;
+        List<String> result = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (element instanceof String) result.add((String) element);
+        }
+        return result;
+    }
+
+    private static int integer(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static Timestamp timestamp(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Timestamp ? (Timestamp) value : null;
+    }
+
+    /** A list holding just the given value, or an empty one for null. */
+    static List<String> singleton(String value) {
+        return value != null ? new ArrayList<>(Collections.singletonList(value)) : new ArrayList<>();
+    }
+}
@@ -0,0 +1,843 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide owner of the ClothingItem catalog.
+ * Screens ask the repository for items instead of querying Firestore themselves, so
+ * results survive finish() and are shared between screens. List lookups read the slim
+ * CatalogSummary documents; only {@link #getItem} reads the full "Clothes" document.
+ * Items are cached by document ID, query results are cached as lists of IDs keyed by
+ * their QueryDescriptor, and Firestore is only hit on a miss or once a cached query is
+ * older than CACHE_TTL_MS. Misses go through a QueryCoalescer so identical requests
+ * that overlap share one read.
+ *
+ * Once {@link #init(Context)} has hydrated the on-device CatalogStore, category,
+ * favourites and search lookups are answered from the local catalog and kept fresh by
+ * CatalogSync's delta sync instead of re-querying Firestore. Rankings (most viewed,
+ * top liked) still go to Firestore since their counters change constantly.
+ *
+ * Global search is answered from an in-memory SearchIndex over every cached item. It
+ * is built in the background once the catalog is hydrated and then updated item by
+ * item as the cache changes, so a search costs no network round trip. A search with
+ * no hits is retried against a FuzzySearchIndex, so misspelled queries still work.
+ * Until the catalog is ready, search asks Firestore instead: one whereArrayContains
+ * on the searchTokens array that SearchTokensIndexer keeps on each item, so only
+ * matching items are downloaded.
+ *
+ * Whether the current user likes an item comes from their FavouritesIndex
+ * (users/{uid}/favourites), which every lookup waits for before answering.
+ *
+ * All methods must be called from the main thread, and callbacks arrive there.
+ * Snapshots are parsed, filtered and sorted on AppExecutors.background(); only the
+ * finished, unmodifiable list is posted back, and the caches are only ever touched
+ * on the main thread.
+ */
+public class ClothingRepository {
+
+    private static final String TAG = "ClothingRepository";
+
+    public static final String COLLECTION = "Clothes";
+
+    private static final long CACHE_TTL_MS = 5 * 60 * 1000L;
+    /** Most items a server-side search fetches while the local catalog isn't ready. */
+    private static final int SEARCH_LIMIT = 50;
+
+    /** Callback for list queries. */
+    public interface ItemsCallback {
+        void onItemsLoaded(List<ClothingItem> items);
+        void onError(Exception e);
+    }
+
+    /** Callback for paged lookups; {@code next} is null once the last page was served. */
+    public interface PageCallback {
+        void onPageLoaded(List<ClothingItem> items, PageCursor next);
+        void onError(Exception e);
+    }
+
+    /**
+     * Where the next page starts. Remote pages continue after the last document
+     * snapshot (a Firestore cursor); pages served from the local catalog use an offset.
+     */
+    public static class PageCursor {
+        final DocumentSnapshot lastSnapshot;
+        final int offset;
+
+        PageCursor(DocumentSnapshot lastSnapshot, int offset) {
+            this.lastSnapshot = lastSnapshot;
+            this.offset = offset;
+        }
+
+        /** This cursor after {@code delta} rows were inserted (or removed) before it. */
+        PageCursor shiftedBy(int delta) {
+            if (lastSnapshot != null || delta == 0) return this;
+            return new PageCursor(null, Math.max(0, offset + delta));
+        }
+    }
+
+    /** Callback for single-document lookups. */
+    public interface ItemCallback {
+        void onItemLoaded(ClothingItem item);
+        void onError(Exception e);
+    }
+
+    /** IDs returned by a query plus the time they were fetched. */
+    private static class CachedQuery {
+        final List<String> ids;
+        final long fetchedAt;
+        /** Last document of the result, kept for paged queries so the next page can start after it. */
+        final DocumentSnapshot last;
+
+        CachedQuery(List<String> ids, long fetchedAt, DocumentSnapshot last) {
+            this.ids = ids;
+            this.fetchedAt = fetchedAt;
+            this.last = last;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - fetchedAt < CACHE_TTL_MS;
+        }
+    }
+
+    /** A leaderboard's entries plus the time the board was read. */
+    private static class CachedBoard {
+        final List<ClothingItem> entries;
+        final long fetchedAt;
+
+        CachedBoard(List<ClothingItem> entries, long fetchedAt) {
+            this.entries = entries;
+            this.fetchedAt = fetchedAt;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - fetchedAt < CACHE_TTL_MS;
+        }
+    }
+
+    private static ClothingRepository instance;
+
+    private final FirebaseFirestore db;
+    private final Map<String, ClothingItem> itemsById = new HashMap<>();
+    private final Map<String, Long> itemFetchedAt = new HashMap<>();
+    private final Map<String, CachedQuery> queries = new HashMap<>();
+    private final QueryCoalescer coalescer;
+    private final FavouritesIndex favourites;
+    /** Leaderboard entries by board; only adopted into itemsById where they are newer. */
+    private final Map<String, CachedBoard> boards = new HashMap<>();
+    /** Mirrors itemsById; replaced wholesale after hydration and full syncs. */
+    private SearchIndex searchIndex = new SearchIndex();
+    /** Typo-tolerant fallback for search(); null until needed and after searchable text changed. */
+    private FuzzySearchIndex fuzzyIndex;
+    /** Bumped whenever searchable text in the cache changes, so a fuzzy index built meanwhile is dropped. */
+    private int searchableVersion = 0;
+    /** Live queries fed by CatalogSync instead of a snapshot listener. */
+    private final Set<LiveQuery> catalogWatchers = new HashSet<>();
+    private final LiveQuery.LocalCatalog localCatalog = new LiveQuery.LocalCatalog() {
+        @Override
+        public boolean isComplete() {
+            return catalogReady;
+        }
+
+        @Override
+        public void addWatcher(LiveQuery query) {
+            catalogWatchers.add(query);
+            syncIfStale();
+        }
+
+        @Override
+        public void removeWatcher(LiveQuery query) {
+            catalogWatchers.remove(query);
+        }
+    };
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    /**
+     * Builds and queries the catalog-wide search indexes, which can take a while on a
+     * large catalog, so that lookups and counter flushes on AppExecutors.background()
+     * don't queue behind them.
+     */
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private CatalogStore store;
+    private CatalogSync sync;
+
+    /** True once the local catalog holds a complete copy of the collection. */
+    private boolean catalogReady = false;
+    private boolean syncInFlight = false;
+    private long lastSyncAt = 0L;
+
+    private ClothingRepository() {
+        db = FirebaseFirestore.getInstance();
+        coalescer = new QueryCoalescer(db);
+        favourites = new FavouritesIndex(db);
+    }
+
+    public static synchronized ClothingRepository getInstance() {
+        if (instance == null) {
+            instance = new ClothingRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the on-device store, loads it into memory and starts a delta sync.
+     * Called once from ClosetApplication; until it completes every lookup falls
+     * back to Firestore.
+     */
+    public void init(Context context) {
+        if (store != null) return;
+        store = new CatalogStore(context);
+        sync = new CatalogSync(db, store, diskExecutor);
+
+        diskExecutor.execute(() -> {
+            List<ClothingItem> items = store.loadAll();
+            boolean complete = store.getMeta(CatalogStore.META_LAST_FULL_SYNC) > 0;
+            mainHandler.post(() -> {
+                long now = System.currentTimeMillis();
+                for (ClothingItem item : items) {
+                    itemsById.put(item.getId(), item);
+                    itemFetchedAt.put(item.getId(), now);
+                }
+                Log.d(TAG, "Hydrated " + items.size() + " items from disk");
+                // Local lookups wait for the index so search never sees half a catalog.
+                rebuildSearchIndex(() -> {
+                    catalogReady = catalogReady || complete;
+                    if (catalogReady) SuggestionStore.getInstance().seedCatalog(itemsById.values());
+                });
+                syncIfStale();
+            });
+        });
+    }
+
+    // ─── Queries used by the screens ───
+
+    public void getCategory(String category, String currentUserId, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId, () -> {
+            if (catalogReady) {
+                serveLocal(item -> category.equals(item.getCategory()), currentUserId, callback);
+                return;
+            }
+            runQuery(new QueryDescriptor(CatalogSummary.COLLECTION).whereEqualTo("Category", category),
+                    currentUserId, callback);
+        });
+    }
+
+    /**
+     * One page of a category, ordered by document ID. Pass a null cursor for the first
+     * page and the cursor handed to the callback for each following one.
+     */
+    public void getCategoryPage(String category, PageCursor after, int pageSize,
+                                String currentUserId, PageCallback callback) {
+        boolean local = after != null ? after.lastSnapshot == null : catalogReady;
+        if (local) {
+            getCategory(category, currentUserId, new ItemsCallback() {
+                @Override
+                public void onItemsLoaded(List<ClothingItem> items) {
+                    int from = after != null ? Math.min(after.offset, items.size()) : 0;
+                    int to = Math.min(from + pageSize, items.size());
+                    PageCursor next = to < items.size() ? new PageCursor(null, to) : null;
+                    callback.onPageLoaded(new ArrayList<>(items.subList(from, to)), next);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    callback.onError(e);
+                }
+            });
+            return;
+        }
+
+        QueryDescriptor query = new QueryDescriptor(CatalogSummary.COLLECTION)
+                .whereEqualTo("Category", category)
+                .orderBy(QueryDescriptor.DOCUMENT_ID, Query.Direction.ASCENDING)
+                .limit(pageSize);
+        if (after != null) {
+            query.startAfter(after.lastSnapshot);
+        }
+        favourites.whenLoaded(currentUserId,
+                () -> runPageQuery(query, pageSize, currentUserId, callback));
+    }
+
+    /**
+     * Live counterpart of {@link #getCategoryPage}: reports the category's items that
+     * are added or changed from now on, without re-reading the ones already loaded.
+     * The caller starts and stops the returned LiveQuery with its lifecycle.
+     */
+    public LiveQuery watchCategory(String category, String currentUserId, LiveQuery.Listener listener) {
+        return new LiveQuery(db, localCatalog,
+                since -> new QueryDescriptor(CatalogSummary.COLLECTION)
+                        .whereEqualTo("Category", category)
+                        .whereGreaterThan("updatedAt", since),
+                item -> category.equals(item.getCategory()),
+                CatalogSummary::toItem,
+                items -> adopt(items, System.currentTimeMillis()),
+                new LiveQuery.Listener() {
+                    @Override
+                    public void onItemsChanged(List<ClothingItem> changed, Set<String> removedIds) {
+                        for (ClothingItem item : changed) applyLikedState(item, currentUserId);
+                        listener.onItemsChanged(changed, removedIds);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        listener.onError(e);
+                    }
+                });
+    }
+
+    public void getMostViewed(int limit, String currentUserId, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId, () -> runLeaderboard(LeaderboardBuilder.MOST_VIEWED,
+                ShardedCounter.VIEWS, limit, currentUserId, false, callback));
+    }
+
+    public void getTopLiked(int limit, String currentUserId, ItemsCallback callback) {
+        getTopLiked(limit, currentUserId, false, callback);
+    }
+
+    /** As above; {@code forceRefresh} skips the cached result and always reads the leaderboard. */
+    public void getTopLiked(int limit, String currentUserId, boolean forceRefresh, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId, () -> runLeaderboard(LeaderboardBuilder.TOP_LIKED,
+                ShardedCounter.LIKES, limit, currentUserId, forceRefresh, callback));
+    }
+
+    public void getFavourites(String currentUserId, ItemsCallback callback) {
+        getFavouritesInCategory(null, currentUserId, callback);
+    }
+
+    /** The user's favourites in one category, or in all of them when {@code category} is null. */
+    public void getFavouritesInCategory(String category, String currentUserId, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId,
+                () -> loadItems(favourites.itemIds(currentUserId, category), currentUserId, callback));
+    }
+
+    /**
+     * Items whose Name, Fabric, Fit, Care or Category has a word starting with each word
+     * of the query, ordered by ID. Answered from the SearchIndex; until the local catalog
+     * is complete it is answered by Firestore through the searchTokens array instead.
+     */
+    public void search(String query, String currentUserId, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId, () -> {
+            if (catalogReady) {
+                deliverSearch(query, currentUserId, callback);
+                syncIfStale();
+                return;
+            }
+            searchRemote(query, currentUserId, callback);
+        });
+    }
+
+    /** Full catalog. */
+    public void getAll(String currentUserId, ItemsCallback callback) {
+        favourites.whenLoaded(currentUserId, () -> {
+            if (catalogReady) {
+                serveLocal(item -> true, currentUserId, callback);
+                return;
+            }
+            runQuery(new QueryDescriptor(CatalogSummary.COLLECTION), currentUserId, callback);
+        });
+    }
+
+    /**
+     * Full item by document ID. Served from the cache when the full document was
+     * fetched within the TTL; a cached summary always triggers a read.
+     */
+    public void getItem(String itemId, String currentUserId, ItemCallback callback) {
+        getItem(itemId, currentUserId, false, callback);
+    }
+
+    /** As above; {@code forceRefresh} always reads the document and refreshes the cached copy. */
+    public void getItem(String itemId, String currentUserId, boolean forceRefresh, ItemCallback callback) {
+        favourites.whenLoaded(currentUserId,
+                () -> loadItem(itemId, currentUserId, forceRefresh, callback));
+    }
+
+    private void loadItem(String itemId, String currentUserId, boolean forceRefresh, ItemCallback callback) {
+        ClothingItem cached = itemsById.get(itemId);
+        Long fetchedAt = itemFetchedAt.get(itemId);
+        if (!forceRefresh && cached != null && !cached.isSummary() && fetchedAt != null
+                && System.currentTimeMillis() - fetchedAt < CACHE_TTL_MS) {
+            applyLikedState(cached, currentUserId);
+            callback.onItemLoaded(cached);
+            return;
+        }
+
+        db.collection(COLLECTION).document(itemId).get()
+                .addOnSuccessListener(doc -> {
+                    if (!doc.exists()) {
+                        callback.onItemLoaded(null);
+                        return;
+                    }
+                    ClothingItem item = cacheDocument(doc, System.currentTimeMillis());
+                    applyLikedState(item, currentUserId);
+                    callback.onItemLoaded(item);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load item " + itemId, e);
+                    callback.onError(e);
+                });
+    }
+
+    /** Returns the cached copy of an item (possibly only its summary), or null if it has never been loaded. */
+    public ClothingItem getCachedItem(String itemId) {
+        return itemsById.get(itemId);
+    }
+
+    // ─── Cache maintenance ───
+
+    /** Keeps the favourites index and cached copy in step after the current user likes or unlikes an item. */
+    public void setLiked(String itemId, String currentUserId, boolean liked) {
+        ClothingItem item = itemsById.get(itemId);
+        favourites.set(currentUserId, itemId, item != null ? item.getCategory() : null, liked);
+        if (item != null && currentUserId != null) {
+            item.setLikedByCurrentUser(liked);
+        }
+    }
+
+    /**
+     * Drops cached query results and the favourites index, e.g. when the signed-in
+     * user changes. The local catalog is shared by every user and is kept.
+     */
+    public void clear() {
+        queries.clear();
+        boards.clear();
+        favourites.clear();
+    }
+
+    // ─── Internals ───
+
+    private interface ItemFilter {
+        boolean matches(ClothingItem item);
+    }
+
+    /**
+     * Answers a lookup from the local catalog, ordered by document ID like Firestore.
+     * The filter and sort run in the background on a copy of the catalog.
+     */
+    private void serveLocal(ItemFilter filter, String currentUserId, ItemsCallback callback) {
+        List<ClothingItem> catalog = new ArrayList<>(itemsById.values());
+        AppExecutors.background().execute(() -> {
+            List<ClothingItem> items = new ArrayList<>();
+            for (ClothingItem item : catalog) {
+                if (filter.matches(item)) items.add(item);
+            }
+            Collections.sort(items, Comparator.comparing(ClothingItem::getId));
+            mainHandler.post(() -> {
+                for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                callback.onItemsLoaded(Collections.unmodifiableList(items));
+            });
+        });
+        syncIfStale();
+    }
+
+    /**
+     * Looks items up by ID, ordered by ID. Items missing from the cache are read one
+     * summary at a time; IDs whose summary no longer exists are left out.
+     */
+    private void loadItems(Set<String> ids, String currentUserId, ItemsCallback callback) {
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>();
+        for (String id : ids) {
+            if (!itemsById.containsKey(id)) {
+                reads.add(CatalogSummary.summary(db, id).get());
+            }
+        }
+
+        Runnable deliver = () -> {
+            List<ClothingItem> items = new ArrayList<>();
+            for (String id : ids) {
+                ClothingItem item = itemsById.get(id);
+                if (item == null) continue;
+                applyLikedState(item, currentUserId);
+                items.add(item);
+            }
+            Collections.sort(items, Comparator.comparing(ClothingItem::getId));
+            callback.onItemsLoaded(Collections.unmodifiableList(items));
+        };
+        if (reads.isEmpty()) {
+            deliver.run();
+            return;
+        }
+
+        Tasks.whenAllSuccess(reads)
+                .addOnSuccessListener(AppExecutors.background(), docs -> {
+                    List<DocumentSnapshot> found = new ArrayList<>();
+                    for (Object doc : docs) {
+                        if (((DocumentSnapshot) doc).exists()) found.add((DocumentSnapshot) doc);
+                    }
+                    List<ClothingItem> parsed = parseSummaries(found);
+                    mainHandler.post(() -> {
+                        adopt(parsed, System.currentTimeMillis());
+                        Log.d(TAG, "Fetched " + reads.size() + " favourite items");
+                        deliver.run();
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load favourite items", e);
+                    callback.onError(e);
+                });
+    }
+
+    private void deliverSearch(String query, String currentUserId, ItemsCallback callback) {
+        List<ClothingItem> items = searchIndex.search(query);
+        if (items.isEmpty() && !SearchIndex.tokenize(query).isEmpty()) {
+            searchFuzzy(query, currentUserId, callback);
+            return;
+        }
+        for (ClothingItem item : items) applyLikedState(item, currentUserId);
+        callback.onItemsLoaded(Collections.unmodifiableList(items));
+    }
+
+    /**
+     * Server-side search: fetches up to SEARCH_LIMIT items whose searchTokens contain
+     * the query's most selective word, then keeps those matching every other word too.
+     * Items the indexer hasn't reached yet can't be found this way, and typos aren't
+     * tolerated; both are covered once the local catalog is ready.
+     */
+    private void searchRemote(String query, String currentUserId, ItemsCallback callback) {
+        String token = SearchTokens.queryToken(query);
+        if (token == null) {
+            callback.onItemsLoaded(Collections.emptyList());
+            return;
+        }
+        QueryDescriptor remote = new QueryDescriptor(COLLECTION)
+                .whereArrayContains(SearchTokens.FIELD, token)
+                .limit(SEARCH_LIMIT);
+        coalescer.get(remote)
+                .addOnSuccessListener(AppExecutors.background(), snapshot -> {
+                    List<ClothingItem> parsed = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        ClothingItem item = ClothingItemMapper.fromSnapshot(doc);
+                        if (item != null) parsed.add(item);
+                    }
+                    SearchIndex matching = new SearchIndex();
+                    matching.putAll(parsed);
+                    List<ClothingItem> items = matching.search(query);
+                    mainHandler.post(() -> {
+                        adopt(parsed, System.currentTimeMillis());
+                        for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                        Log.d(TAG, "Searched " + token + " remotely (" + items.size() + " of "
+                                + parsed.size() + " items)");
+                        callback.onItemsLoaded(Collections.unmodifiableList(items));
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Remote search failed: " + token, e);
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * Typo-tolerant search, ranked best first, run on indexExecutor. The
+     * FuzzySearchIndex is built from the cache the first time it's needed and kept
+     * until searchable text changes.
+     */
+    private void searchFuzzy(String query, String currentUserId, ItemsCallback callback) {
+        FuzzySearchIndex index = fuzzyIndex;
+        List<ClothingItem> snapshot = index == null ? new ArrayList<>(itemsById.values()) : null;
+        int version = searchableVersion;
+        indexExecutor.execute(() -> {
+            FuzzySearchIndex searched = index != null ? index : new FuzzySearchIndex(snapshot);
+            List<ClothingItem> matches = searched.search(query);
+            mainHandler.post(() -> {
+                if (version == searchableVersion) fuzzyIndex = searched;
+                List<ClothingItem> items = new ArrayList<>(matches.size());
+                for (ClothingItem match : matches) {
+                    // The index may hold an older copy; hand out the cached one.
+                    ClothingItem item = itemsById.get(match.getId());
+                    if (item == null) continue;
+                    applyLikedState(item, currentUserId);
+                    items.add(item);
+                }
+                callback.onItemsLoaded(Collections.unmodifiableList(items));
+            });
+        });
+    }
+
+    /**
+     * Indexes a snapshot of the cache on indexExecutor and swaps it in on the main
+     * thread, catching up on items cached in the meantime, then runs {@code onSwapped}.
+     */
+    private void rebuildSearchIndex(Runnable onSwapped) {
+        List<ClothingItem> snapshot = new ArrayList<>(itemsById.values());
+        indexExecutor.execute(() -> {
+            SearchIndex index = new SearchIndex();
+            index.putAll(snapshot);
+            mainHandler.post(() -> {
+                for (ClothingItem item : itemsById.values()) {
+                    if (index.get(item.getId()) != item) index.put(item);
+                }
+                searchIndex = index;
+                searchableChanged();
+                Log.d(TAG, "Search index built (" + index.size() + " items)");
+                onSwapped.run();
+            });
+        });
+    }
+
+    private void syncIfStale() {
+        if (sync == null || syncInFlight
+                || System.currentTimeMillis() - lastSyncAt < CACHE_TTL_MS) {
+            return;
+        }
+        syncInFlight = true;
+        sync.run(new CatalogSync.Listener() {
+            @Override
+            public void onSynced(List<ClothingItem> changed, boolean fullSync) {
+                syncInFlight = false;
+                lastSyncAt = System.currentTimeMillis();
+                if (fullSync) {
+                    Set<String> removed = new HashSet<>(itemsById.keySet());
+                    itemsById.clear();
+                    itemFetchedAt.clear();
+                    for (ClothingItem item : changed) {
+                        itemsById.put(item.getId(), item);
+                        itemFetchedAt.put(item.getId(), lastSyncAt);
+                        removed.remove(item.getId());
+                    }
+                    rebuildSearchIndex(() -> {
+                        catalogReady = true;
+                        SuggestionStore.getInstance().updateCatalog(itemsById.values());
+                    });
+                    notifyCatalogWatchers(changed, removed);
+                    return;
+                }
+                for (ClothingItem item : changed) {
+                    cacheItem(item, lastSyncAt);
+                }
+                catalogReady = true;
+                if (!changed.isEmpty()) {
+                    SuggestionStore.getInstance().updateCatalog(itemsById.values());
+                    notifyCatalogWatchers(changed, Collections.emptySet());
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                syncInFlight = false;
+                // Try again on the next lookup after the TTL rather than hammering.
+                lastSyncAt = System.currentTimeMillis();
+            }
+        });
+    }
+
+    private void notifyCatalogWatchers(List<ClothingItem> changed, Set<String> removedIds) {
+        // Copied: a watcher may stop itself while handling the change.
+        for (LiveQuery watcher : new ArrayList<>(catalogWatchers)) {
+            watcher.onCatalogChanged(changed, removedIds);
+        }
+    }
+
+    private void runQuery(QueryDescriptor query, String currentUserId, ItemsCallback callback) {
+        String key = query.key();
+        CachedQuery cached = queries.get(key);
+        if (cached != null && cached.isFresh()) {
+            List<ClothingItem> items = resolve(cached.ids);
+            if (items != null) {
+                Log.d(TAG, "Cache hit for " + key + " (" + items.size() + " items)");
+                for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                callback.onItemsLoaded(Collections.unmodifiableList(items));
+                return;
+            }
+        }
+
+        coalescer.get(query)
+                .addOnSuccessListener(AppExecutors.background(), snapshot -> {
+                    List<ClothingItem> items = parseSummaries(snapshot.getDocuments());
+                    mainHandler.post(() -> {
+                        long now = System.currentTimeMillis();
+                        List<String> ids = adopt(items, now);
+                        for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                        queries.put(key, new CachedQuery(ids, now, null));
+                        Log.d(TAG, "Fetched " + key + " (" + items.size() + " items)");
+                        callback.onItemsLoaded(items);
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Query failed: " + key, e);
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * Serves a ranking from its leaderboard document: one read, cached like a query.
+     * Falls back to the sorted summary query when more entries are asked for than a
+     * board holds, or the board is missing or older than LeaderboardBuilder.MAX_AGE_MS.
+     * Boards are only ever rebuilt by the buildLeaderboards job; the app just reads them.
+     */
+    private void runLeaderboard(String board, String sortField, int limit, String currentUserId,
+                                boolean forceRefresh, ItemsCallback callback) {
+        QueryDescriptor fallback = new QueryDescriptor(CatalogSummary.COLLECTION)
+                .orderBy(sortField, Query.Direction.DESCENDING)
+                .limit(limit);
+        if (limit > LeaderboardBuilder.SIZE) {
+            runQuery(fallback, currentUserId, callback);
+            return;
+        }
+
+        CachedBoard cached = boards.get(board);
+        if (!forceRefresh && cached != null && cached.isFresh()) {
+            deliverRanking(cached, limit, currentUserId, callback);
+            return;
+        }
+
+        db.collection(LeaderboardBuilder.COLLECTION).document(board).get()
+                .addOnSuccessListener(doc -> {
+                    if (LeaderboardBuilder.isStale(doc)) {
+                        Log.w(TAG, "Leaderboard " + board + " is missing or stale; querying summaries");
+                        runQuery(fallback, currentUserId, callback);
+                        return;
+                    }
+
+                    CachedBoard fetched = new CachedBoard(LeaderboardBuilder.toItems(doc),
+                            System.currentTimeMillis());
+                    boards.put(board, fetched);
+                    Log.d(TAG, "Fetched leaderboard " + board
+                            + " (" + fetched.entries.size() + " items)");
+                    deliverRanking(fetched, limit, currentUserId, callback);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Leaderboard read failed: " + board, e);
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * Hands out the cached items for the top {@code limit} board entries, adopting
+     * entries that are newer than the cached copy (see LeaderboardEntries).
+     */
+    private void deliverRanking(CachedBoard board, int limit, String currentUserId,
+                                ItemsCallback callback) {
+        List<ClothingItem> top = LeaderboardEntries.resolve(board.entries, limit, itemsById,
+                catalogReady, entry -> cacheItem(entry, board.fetchedAt));
+        for (ClothingItem item : top) applyLikedState(item, currentUserId);
+        callback.onItemsLoaded(Collections.unmodifiableList(top));
+    }
+
+    private void runPageQuery(QueryDescriptor query, int pageSize,
+                              String currentUserId, PageCallback callback) {
+        String key = query.key();
+        CachedQuery cached = queries.get(key);
+        if (cached != null && cached.isFresh()) {
+            List<ClothingItem> items = resolve(cached.ids);
+            if (items != null) {
+                for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                callback.onPageLoaded(Collections.unmodifiableList(items),
+                        nextCursor(cached.last, items.size(), pageSize));
+                return;
+            }
+        }
+
+        coalescer.get(query)
+                .addOnSuccessListener(AppExecutors.background(), snapshot -> {
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    List<ClothingItem> items = parseSummaries(docs);
+                    DocumentSnapshot last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+                    mainHandler.post(() -> {
+                        long now = System.currentTimeMillis();
+                        List<String> ids = adopt(items, now);
+                        for (ClothingItem item : items) applyLikedState(item, currentUserId);
+                        queries.put(key, new CachedQuery(ids, now, last));
+                        Log.d(TAG, "Fetched " + key + " (" + docs.size() + " docs)");
+                        callback.onPageLoaded(items, nextCursor(last, docs.size(), pageSize));
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Page query failed: " + key, e);
+                    callback.onError(e);
+                });
+    }
+
+    /** A short page means the query is exhausted. */
+    private static PageCursor nextCursor(DocumentSnapshot last, int count, int pageSize) {
+        return (last != null && count >= pageSize) ? new PageCursor(last, 0) : null;
+    }
+
+    /** Looks up every ID; returns null if any of them has been evicted. */
+    private List<ClothingItem> resolve(List<String> ids) {
+        List<ClothingItem> items = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ClothingItem item = itemsById.get(id);
+            if (item == null) return null;
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Parses a document and merges it into the cache. An existing instance is
+     * replaced so screens holding the old one keep a consistent snapshot.
+     */
+    private ClothingItem cacheDocument(DocumentSnapshot doc, long fetchedAt) {
+        ClothingItem item = ClothingItemMapper.fromSnapshot(doc);
+        if (item == null) {
+            Log.e(TAG, "Item was null after parsing doc: " + doc.getId());
+            return null;
+        }
+        cacheItem(item, fetchedAt);
+        return item;
+    }
+
+    /** Puts an item in the cache and the search index, replacing any older copy. */
+    private void cacheItem(ClothingItem item, long fetchedAt) {
+        ClothingItem previous = itemsById.put(item.getId(), item);
+        itemFetchedAt.put(item.getId(), fetchedAt);
+        searchIndex.put(item);
+        if (previous == null || !previous.getSearchKey().equals(item.getSearchKey())) {
+            searchableChanged();
+        }
+    }
+
+    private void searchableChanged() {
+        searchableVersion++;
+        fuzzyIndex = null;
+    }
+
+    /** Parses summary documents into an unmodifiable list; runs off the main thread. */
+    private static List<ClothingItem> parseSummaries(List<DocumentSnapshot> docs) {
+        List<ClothingItem> items = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            items.add(CatalogSummary.toItem(doc));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /** Puts parsed items in the cache, replacing older copies, and returns their IDs. */
+    private List<String> adopt(List<ClothingItem> items, long fetchedAt) {
+        List<String> ids = new ArrayList<>(items.size());
+        for (ClothingItem item : items) {
+            cacheItem(item, fetchedAt);
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+    /** Whether the user likes the item, letting a queued like/unlike win over the favourites index. */
+    private boolean isLikedBy(ClothingItem item, String userId) {
+        Boolean pending = LikeQueue.getInstance().pendingState(userId, item.getId());
+        if (pending != null) return pending;
+        return favourites.contains(userId, item.getId());
+    }
+
+    private void applyLikedState(ClothingItem item, String currentUserId) {
+        item.setLikedByCurrentUser(isLikedBy(item, currentUserId));
+    }
+}
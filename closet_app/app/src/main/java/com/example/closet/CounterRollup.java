@@ -0,0 +1,109 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Periodic roll-up step for ShardedCounter.
+ * Items whose shards this device wrote to are remembered (on disk, so a restart
+ * doesn't forget them) and at most once per ROLLUP_INTERVAL_MS their shard totals are
+ * written back to the parent Views/Likes field and its summary, which the
+ * leaderboards for MostViewedActivity and TopPicksManager are ranked from. It runs
+ * after ViewCountBuffer and LikeQueue flushes and when the app goes to the background.
+ *
+ * Each dirty marker holds a sequence number that is bumped every time the item is
+ * marked again, and a roll-up only clears the marker if it still holds the number
+ * seen when the roll-up started; shards written meanwhile are rolled up next time.
+ * Markers for items that no longer exist are cleared.
+ *
+ * Must be used from the main thread.
+ */
+public class CounterRollup {
+
+    private static final String TAG = "CounterRollup";
+
+    private static final String PREFS_NAME = "counter_rollup";
+    /** Marker keys are this prefix plus "{field}/{itemId}". */
+    private static final String DIRTY_PREFIX = "dirty:";
+    private static final String KEY_SEQUENCE = "sequence";
+    private static final String KEY_LAST_RUN = "last_run";
+    private static final long ROLLUP_INTERVAL_MS = 5 * 60 * 1000L;
+
+    private static CounterRollup instance;
+
+    private SharedPreferences prefs;
+
+    private CounterRollup() {
+    }
+
+    public static synchronized CounterRollup getInstance() {
+        if (instance == null) {
+            instance = new CounterRollup();
+        }
+        return instance;
+    }
+
+    public void init(Context context) {
+        if (prefs != null) return;
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** Remembers that the given items' shards for {@code field} changed. */
+    public void markDirty(Collection<String> itemIds, String field) {
+        if (prefs == null || itemIds.isEmpty()) return;
+        long sequence = prefs.getLong(KEY_SEQUENCE, 0L) + 1;
+        SharedPreferences.Editor editor = prefs.edit().putLong(KEY_SEQUENCE, sequence);
+        for (String itemId : itemIds) {
+            editor.putLong(DIRTY_PREFIX + field + "/" + itemId, sequence);
+        }
+        editor.apply();
+    }
+
+    /** Rolls up every dirty counter if the last run was long enough ago. */
+    public void runIfDue() {
+        if (prefs == null) return;
+        long lastRun = prefs.getLong(KEY_LAST_RUN, 0L);
+        if (System.currentTimeMillis() - lastRun < ROLLUP_INTERVAL_MS) return;
+
+        Map<String, Long> dirty = new HashMap<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getKey().startsWith(DIRTY_PREFIX) && entry.getValue() instanceof Long) {
+                dirty.put(entry.getKey(), (Long) entry.getValue());
+            }
+        }
+        prefs.edit().putLong(KEY_LAST_RUN, System.currentTimeMillis()).apply();
+        if (dirty.isEmpty()) return;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        for (Map.Entry<String, Long> marker : dirty.entrySet()) {
+            String entry = marker.getKey().substring(DIRTY_PREFIX.length());
+            int slash = entry.indexOf('/');
+            String field = entry.substring(0, slash);
+            String itemId = entry.substring(slash + 1);
+            ShardedCounter.rollUp(db, db.collection(ClothingRepository.COLLECTION).document(itemId), field)
+                    .addOnSuccessListener(total -> {
+                        clean(marker.getKey(), marker.getValue());
+                        if (total == null) {
+                            Log.d(TAG, "Dropped " + entry + ": the item no longer exists");
+                        } else {
+                            Log.d(TAG, "Rolled up " + field + " for " + itemId + " = " + total);
+                        }
+                    })
+                    .addOnFailureListener(e -> Log.e(TAG, "Roll-up failed for " + entry, e));
+        }
+    }
+
+    /** Clears a marker unless the item was marked again since {@code sequence} was read. */
+    private void clean(String key, long sequence) {
+        if (prefs.getLong(key, 0L) == sequence) {
+            prefs.edit().remove(key).apply();
+        }
+    }
+}
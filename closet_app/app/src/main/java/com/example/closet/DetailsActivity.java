@@ -5,7 +5,7 @@ import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
 import android.widget.ArrayAdapter;
-import android.widget.EditText;
+import android.widget.AutoCompleteTextView;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -22,9 +22,8 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class DetailsActivity extends AppCompatActivity {
@@ -32,7 +31,6 @@ public class DetailsActivity extends AppCompatActivity {
     private static final String TAG = "DetailsActivity";
 
     private DrawerLayout drawerLayout;
-    private FirebaseFirestore db;
     private FirebaseAuth auth;
     private String itemId;
     private String userId;
@@ -42,6 +40,9 @@ public class DetailsActivity extends AppCompatActivity {
     private LinearLayout dotsContainer;
     private ImageView likeButton;
 
+    private boolean isLiked = false;
+    private List<String> shownImages;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -76,7 +77,6 @@ public class DetailsActivity extends AppCompatActivity {
         });
 
 
-        db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
         userId = auth.getCurrentUser() != null ? auth.getCurrentUser().getUid() : null;
 
@@ -103,11 +103,11 @@ public class DetailsActivity extends AppCompatActivity {
         setupDrawer();
         setupSearchBar();
 
-        // since its being viewed, increment count in firestore
+        // since its being viewed, count the view (flushed to firestore in batches)
         itemId = getIntent().getStringExtra("ITEM_ID");
         if (itemId != null) {
-            setupLikeLogic();
-            loadFirestore(itemId);
+            likeButton.setOnClickListener(v -> toggleLike());
+            loadItem(itemId);
             incrementViewCount(itemId);
         } else {
             Log.e(TAG, "No ITEM_ID passed to DetailsActivity");
@@ -119,17 +119,23 @@ public class DetailsActivity extends AppCompatActivity {
     }
     
     private void setupSearchBar() {
-        EditText searchBar = findViewById(R.id.search_bar);
+        AutoCompleteTextView searchBar = findViewById(R.id.search_bar);
         searchBar.setOnEditorActionListener((v, actionId, event) -> {
             String query = searchBar.getText().toString().trim();
             if (!query.isEmpty()) {
-                Intent intent = new Intent(DetailsActivity.this, ListActivity.class);
-                intent.putExtra("SEARCH_QUERY", query);
-                intent.putExtra("SEARCH_SCOPE", "global");
-                startActivity(intent);
+                SuggestionStore.getInstance().recordQuery(query);
+                openSearch(query);
             }
             return true;
         });
+        SuggestionAdapter.attach(searchBar, this::openSearch);
+    }
+
+    private void openSearch(String query) {
+        Intent intent = new Intent(DetailsActivity.this, ListActivity.class);
+        intent.putExtra("SEARCH_QUERY", query);
+        intent.putExtra("SEARCH_SCOPE", "global");
+        startActivity(intent);
     }
 
     private void setupDrawer() {
@@ -172,34 +178,54 @@ public class DetailsActivity extends AppCompatActivity {
         if (!visible) view.setVisibility(View.VISIBLE);
     }
 
-    private void loadFirestore(String itemId) {
-        db.collection("Clothes").document(itemId).get()
-                .addOnSuccessListener(document -> {
-                    if (!document.exists()) {
-                        Log.e(TAG, "Document doesn't exist");
-                        return;
-                    }
-
-                    itemName.setText(document.getString("Name"));
-                    fabricText.setText(document.getString("Fabric"));
-                    fitText.setText(document.getString("Fit"));
-                    careText.setText(document.getString("Care"));
-
-                    List<String> images = (List<String>) document.get("images");
-                    if (images != null && !images.isEmpty()) {
-                        setupImageSlider(images);
-                    }
-                })
-                .addOnFailureListener(e -> Log.e(TAG, "Failed to load Firestore doc", e));
+    /**
+     * Draws the copy the calling screen already loaded (no network), then makes one
+     * document read that refreshes both the content and the like state.
+     */
+    private void loadItem(String itemId) {
+        ClothingRepository repository = ClothingRepository.getInstance();
+        ClothingItem cached = repository.getCachedItem(itemId);
+        if (cached != null) {
+            bindItem(cached);
+        }
+
+        repository.getItem(itemId, userId, true, new ClothingRepository.ItemCallback() {
+            @Override
+            public void onItemLoaded(ClothingItem item) {
+                if (item == null) {
+                    Log.e(TAG, "Document doesn't exist");
+                    return;
+                }
+                bindItem(item);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to load Firestore doc", e);
+            }
+        });
+    }
+
+    private void bindItem(ClothingItem item) {
+        itemName.setText(item.getName());
+        fabricText.setText(item.getFabric());
+        fitText.setText(item.getFit());
+        careText.setText(item.getCare());
+
+        List<String> images = item.getImages();
+        if (images != null && !images.isEmpty() && !images.equals(shownImages)) {
+            shownImages = new ArrayList<>(images);
+            setupImageSlider(shownImages);
+        }
+
+        // Set by ClothingRepository, including likes still waiting in the LikeQueue
+        isLiked = item.isLikedByCurrentUser();
+        likeButton.setImageResource(isLiked ? R.drawable.ic_heart_filled : R.drawable.ic_favorite);
     }
 
     private void incrementViewCount(String itemId) {
-        db.collection("Clothes").document(itemId)
-                .update("Views", com.google.firebase.firestore.FieldValue.increment(1))
-                .addOnSuccessListener(aVoid ->
-                        Log.d(TAG, "View count incremented for item: " + itemId))
-                .addOnFailureListener(e ->
-                        Log.e(TAG, "Failed to increment view count", e));
+        // Buffered locally and written in batches; see ViewCountBuffer.
+        ViewCountBuffer.getInstance().record(itemId);
     }
 
     private void setupImageSlider(List<String> urls) {
@@ -245,29 +271,15 @@ public class DetailsActivity extends AppCompatActivity {
         });
     }
 
-    private void setupLikeLogic() {
+    private void toggleLike() {
         if (userId == null || itemId == null) return;
 
-        db.collection("Clothes").document(itemId).get()
-                .addOnSuccessListener(doc -> {
-                    List<String> likedUsers = (List<String>) doc.get("likedUsers");
-                    boolean[] isLiked = {likedUsers != null && likedUsers.contains(userId)};
-
-                    likeButton.setImageResource(isLiked[0] ? R.drawable.ic_heart_filled : R.drawable.ic_favorite);
-
-                    likeButton.setOnClickListener(v -> {
-                        isLiked[0] = !isLiked[0];
-                        likeButton.setImageResource(isLiked[0] ? R.drawable.ic_heart_filled : R.drawable.ic_favorite);
-
-                        db.collection("Clothes").document(itemId)
-                                .update("likedUsers", isLiked[0]
-                                        ? com.google.firebase.firestore.FieldValue.arrayUnion(userId)
-                                        : com.google.firebase.firestore.FieldValue.arrayRemove(userId))
-                                .addOnSuccessListener(aVoid -> Log.d(TAG, "Like status updated"))
-                                .addOnFailureListener(e -> Log.e(TAG, "Failed to update like", e));
-                    });
-                })
-                .addOnFailureListener(e -> Log.e(TAG, "Failed to get item for like setup", e));
+        isLiked = !isLiked;
+        boolean liked = isLiked;
+        likeButton.setImageResource(liked ? R.drawable.ic_heart_filled : R.drawable.ic_favorite);
+
+        // Queued and debounced with every other like in the app.
+        LikeQueue.getInstance().setLiked(userId, itemId, liked);
     }
 
     private void goHome() {
@@ -0,0 +1,86 @@
+package com.example.closet;
+
+import android.view.View;
+
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row of filter chips under a screen's search bar, one per Fabric, Fit, Size and
+ * (if the list mixes them) Category value, each showing how many items picking it
+ * would leave. Keeps a FacetIndex over the screen's list, rebuilt only when the list
+ * really changed, and applies the picked chips to it. Main thread only.
+ */
+public class FacetBar {
+
+    /** The facets shown, in chip order. */
+    private static final FacetIndex.Facet[] SHOWN = {
+            FacetIndex.Facet.CATEGORY, FacetIndex.Facet.FABRIC, FacetIndex.Facet.FIT, FacetIndex.Facet.SIZE};
+
+    private final ChipGroup chips;
+    private final Runnable onSelectionChanged;
+    private final FacetIndex.Selection selection = new FacetIndex.Selection();
+    private FacetIndex index;
+
+    /** {@code onSelectionChanged} runs after a chip was picked or unpicked. */
+    public FacetBar(ChipGroup chips, Runnable onSelectionChanged) {
+        this.chips = chips;
+        this.onSelectionChanged = onSelectionChanged;
+    }
+
+    public boolean hasSelection() {
+        return !selection.isEmpty();
+    }
+
+    /**
+     * The items matching the picked chips, in list order; the list itself when
+     * nothing is picked. Reindexes and recounts first if the list changed.
+     */
+    public List<ClothingItem> apply(List<ClothingItem> items) {
+        refresh(items);
+        return selection.isEmpty() ? items : index.filter(selection);
+    }
+
+    /** Brings the chips and counts up to date with the list. */
+    public void refresh(List<ClothingItem> items) {
+        if (index != null && index.isFor(items)) return;
+        index = new FacetIndex(items);
+        showChips();
+    }
+
+    private void showChips() {
+        chips.removeAllViews();
+        for (FacetIndex.Facet facet : SHOWN) {
+            Map<String, Integer> counts = index.counts(facet, selection);
+            // A pick the list no longer has stays, at 0, so it can still be undone.
+            for (String value : selection.picked(facet)) {
+                if (!counts.containsKey(value)) counts.put(value, 0);
+            }
+            // A facet every item shares (e.g. Category on a category screen) filters nothing.
+            if (counts.size() < 2 && selection.picked(facet).isEmpty()) continue;
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                chips.addView(chip(facet, count.getKey(), count.getValue()));
+            }
+        }
+        chips.setVisibility(chips.getChildCount() > 0 ? View.VISIBLE : View.GONE);
+    }
+
+    private Chip chip(FacetIndex.Facet facet, String value, int count) {
+        Chip chip = new Chip(chips.getContext());
+        boolean picked = selection.isPicked(facet, value);
+        chip.setText(value + " (" + count + ")");
+        chip.setCheckable(true);
+        chip.setChecked(picked);
+        // Nothing would be left, so only allow unpicking.
+        chip.setEnabled(picked || count > 0);
+        chip.setOnClickListener(v -> {
+            selection.toggle(facet, value);
+            showChips();
+            onSelectionChanged.run();
+        });
+        return chip;
+    }
+}
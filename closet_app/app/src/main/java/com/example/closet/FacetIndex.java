@@ -0,0 +1,151 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Facet filters over one list of items. For each facet (Category, Fabric, Fit, Sizes)
+ * every distinct value maps to a BitSet of the positions of the items that have it,
+ * so a selection resolves with word-at-a-time ORs within a facet and ANDs across
+ * facets instead of another pass over the items per criterion. Values are grouped
+ * ignoring case and listed alphabetically, spelled as first seen.
+ *
+ * Immutable once built; build a new one when the list changes (see {@link #isFor}).
+ */
+public class FacetIndex {
+
+    public enum Facet {
+        CATEGORY, FABRIC, FIT, SIZE
+    }
+
+    /**
+     * The values picked in each facet. An item matches if it has one of the picked
+     * values of every facet with a pick; nothing picked matches everything.
+     */
+    public static final class Selection {
+        private final Map<Facet, Set<String>> picked = new EnumMap<>(Facet.class);
+
+        /** Picks the value, or unpicks it if it was picked. */
+        public void toggle(Facet facet, String value) {
+            Set<String> values = picked.computeIfAbsent(facet, f -> new LinkedHashSet<>());
+            if (!values.remove(value)) values.add(value);
+            if (values.isEmpty()) picked.remove(facet);
+        }
+
+        public boolean isPicked(Facet facet, String value) {
+            Set<String> values = picked.get(facet);
+            return values != null && values.contains(value);
+        }
+
+        public boolean isEmpty() {
+            return picked.isEmpty();
+        }
+
+        /** The facet's picked values, in the order they were picked. */
+        public Set<String> picked(Facet facet) {
+            Set<String> values = picked.get(facet);
+            return values != null ? Collections.unmodifiableSet(values) : Collections.emptySet();
+        }
+    }
+
+    private final List<ClothingItem> items;
+    private final Map<Facet, TreeMap<String, BitSet>> bits = new EnumMap<>(Facet.class);
+
+    /** Indexes a copy of the list, so the caller can keep editing it. */
+    public FacetIndex(List<ClothingItem> items) {
+        this.items = new ArrayList<>(items);
+        for (Facet facet : Facet.values()) {
+            bits.put(facet, new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            ClothingItem item = items.get(i);
+            if (item == null) continue;
+            add(Facet.CATEGORY, item.getCategory(), i);
+            add(Facet.FABRIC, item.getFabric(), i);
+            add(Facet.FIT, item.getFit(), i);
+            if (item.getSizes() != null) {
+                for (String size : item.getSizes()) add(Facet.SIZE, size, i);
+            }
+        }
+    }
+
+    private void add(Facet facet, String value, int position) {
+        if (value == null || value.trim().isEmpty()) return;
+        bits.get(facet).computeIfAbsent(value.trim(), v -> new BitSet()).set(position);
+    }
+
+    /**
+     * Whether this index still describes the list: the same item instances in the
+     * same order. A reference check per item, far cheaper than rebuilding.
+     */
+    public boolean isFor(List<ClothingItem> list) {
+        if (list.size() != items.size()) return false;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) != items.get(i)) return false;
+        }
+        return true;
+    }
+
+    /** The facet's values, alphabetically. */
+    public Set<String> values(Facet facet) {
+        return Collections.unmodifiableSet(bits.get(facet).keySet());
+    }
+
+    /** Positions of the items matching the selection. */
+    public BitSet matching(Selection selection) {
+        return matchingExcept(selection, null);
+    }
+
+    /** Items matching the selection, in list order. */
+    public List<ClothingItem> filter(Selection selection) {
+        if (selection.isEmpty()) return new ArrayList<>(items);
+        BitSet matches = matching(selection);
+        List<ClothingItem> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(items.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * How many items each of the facet's values would leave, alphabetically. The
+     * facet's own picks are left out, since picking another value there adds to them:
+     * the counts answer "what if I also picked this".
+     */
+    public Map<String, Integer> counts(Facet facet, Selection selection) {
+        BitSet others = matchingExcept(selection, facet);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        BitSet scratch = new BitSet(items.size());
+        for (Map.Entry<String, BitSet> entry : bits.get(facet).entrySet()) {
+            scratch.clear();
+            scratch.or(entry.getValue());
+            scratch.and(others);
+            counts.put(entry.getKey(), scratch.cardinality());
+        }
+        return counts;
+    }
+
+    private BitSet matchingExcept(Selection selection, Facet skipped) {
+        BitSet result = new BitSet(items.size());
+        result.set(0, items.size());
+        for (Map.Entry<Facet, Set<String>> entry : selection.picked.entrySet()) {
+            if (entry.getKey() == skipped) continue;
+            BitSet any = new BitSet(items.size());
+            TreeMap<String, BitSet> values = bits.get(entry.getKey());
+            for (String value : entry.getValue()) {
+                BitSet positions = values.get(value);
+                if (positions != null) any.or(positions);
+            }
+            result.and(any);
+        }
+        return result;
+    }
+}
@@ -21,9 +21,6 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,7 +36,12 @@ public class FavouritesActivity extends AppCompatActivity implements ItemAdapter
     private final List<ClothingItem> favouritesList = new ArrayList<>();
     private final List<ClothingItem> filteredList = new ArrayList<>();
 
-    private FirebaseFirestore firestore;
+    private final LikeQueue.Listener likeListener = this::onLikeChanged;
+    // The picked facet chips narrow the list first, then the query searches what's left.
+    private FacetBar facets;
+    private final SearchDebouncer search = new SearchDebouncer(
+            SearchDebouncer.filtering(() -> facets.apply(favouritesList)), this::showResults);
+
     private FirebaseAuth firebaseAuth;
     private String currentUserId;
 
@@ -79,7 +81,6 @@ public class FavouritesActivity extends AppCompatActivity implements ItemAdapter
 
 
 
-        firestore = FirebaseFirestore.getInstance();
         firebaseAuth = FirebaseAuth.getInstance();
 
         if (firebaseAuth.getCurrentUser() != null) {
@@ -143,55 +144,44 @@ public class FavouritesActivity extends AppCompatActivity implements ItemAdapter
     }
 
     private void setupSearch() {
+        facets = new FacetBar(findViewById(R.id.facet_chips),
+                () -> search.submitNow(searchBar.getText().toString()));
         searchBar.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void afterTextChanged(Editable s) {}
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterItems(s.toString());
+                search.submit(s.toString());
             }
         });
     }
 
     private void loadFavourites() {
-        firestore.collection("Clothes")
-                .whereArrayContains("likedUsers", currentUserId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    favouritesList.clear();
-                    filteredList.clear();
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        ClothingItem item = doc.toObject(ClothingItem.class);
-                        if (item != null) {
-                            item.setId(doc.getId());
-                            item.setLikedByCurrentUser(true);
-                            favouritesList.add(item);
-                            filteredList.add(item);
-                        }
-                    }
-                    adapter.updateItems(filteredList);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load favourites", e);
-                    Toast.makeText(this, "Error loading favourites", Toast.LENGTH_SHORT).show();
-                });
-    }
-
-    private void filterItems(String query) {
-        String lower = query.toLowerCase().trim();
-        filteredList.clear();
+        ClothingRepository.getInstance().getFavourites(currentUserId, new ClothingRepository.ItemsCallback() {
+            @Override
+            public void onItemsLoaded(List<ClothingItem> items) {
+                favouritesList.clear();
+                for (ClothingItem item : items) {
+                    item.setLikedByCurrentUser(true);
+                    favouritesList.add(item);
+                }
+                // Through the search, so a query typed while loading still applies.
+                search.submitNow(searchBar.getText().toString());
+            }
 
-        for (ClothingItem item : favouritesList) {
-            if ((item.getName() != null && item.getName().toLowerCase().contains(lower)) ||
-                    (item.getCategory() != null && item.getCategory().toLowerCase().contains(lower)) ||
-                    (item.getFabric() != null && item.getFabric().toLowerCase().contains(lower)) ||
-                    (item.getFit() != null && item.getFit().toLowerCase().contains(lower))) {
-                filteredList.add(item);
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to load favourites", e);
+                Toast.makeText(FavouritesActivity.this, "Error loading favourites", Toast.LENGTH_SHORT).show();
             }
-        }
+        });
+    }
 
-        adapter.updateItems(filteredList);
+    private void showResults(List<ClothingItem> items) {
+        filteredList.clear();
+        filteredList.addAll(items);
+        adapter.submitItems(filteredList);
     }
 
     @Override
@@ -203,23 +193,51 @@ public class FavouritesActivity extends AppCompatActivity implements ItemAdapter
 
     @Override
     public void onItemLike(ClothingItem item, int position, boolean isLiked) {
-        firestore.collection("Clothes").document(item.getId())
-                .update("likedUsers", isLiked
-                        ? com.google.firebase.firestore.FieldValue.arrayUnion(currentUserId)
-                        : com.google.firebase.firestore.FieldValue.arrayRemove(currentUserId))
-                .addOnSuccessListener(unused -> {
-                    if (isLiked) {
-                        item.setLikedByCurrentUser(true);
-                    } else {
-                        item.setLikedByCurrentUser(false);
-                        favouritesList.remove(item);
-                        filteredList.remove(item);
-                        adapter.notifyItemRemoved(position);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to update like status", e);
-                    Toast.makeText(this, "Failed to update like", Toast.LENGTH_SHORT).show();
-                });
+        if (item.getId() == null) return;
+        // Queued and debounced; the list is updated through likeListener.
+        LikeQueue.getInstance().setLiked(currentUserId, item.getId(), isLiked);
+    }
+
+    /** Keeps the list in step with likes queued here or on any other screen. */
+    private void onLikeChanged(String itemId, boolean liked) {
+        if (!liked) {
+            favouritesList.removeIf(item -> itemId.equals(item.getId()));
+            filteredList.removeIf(item -> itemId.equals(item.getId()));
+            adapter.removeItem(itemId);
+            // A search still running over the old list would bring the row back.
+            search.submitNow(searchBar.getText().toString());
+            return;
+        }
+
+        for (ClothingItem item : favouritesList) {
+            if (itemId.equals(item.getId())) {
+                adapter.refreshItem(itemId);
+                return;
+            }
+        }
+        ClothingItem item = ClothingRepository.getInstance().getCachedItem(itemId);
+        if (item != null) {
+            item.setLikedByCurrentUser(true);
+            favouritesList.add(item);
+            search.submitNow(searchBar.getText().toString());
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        LikeQueue.getInstance().addListener(likeListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        LikeQueue.getInstance().removeListener(likeListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        search.cancel();
     }
 }
@@ -0,0 +1,148 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The signed-in user's favourites, kept in users/{uid}/favourites with one small
+ * document per liked item ({itemId, category, addedAt}). Finding a user's favourites is
+ * a single query over their own subcollection, and no "Clothes" document has to carry
+ * the list of everyone who liked it, so item size stays constant however popular it is.
+ *
+ * ClothingRepository loads the index once per signed-in user and keeps it in step with
+ * LikeQueue; Likes on the item is the per-item count (see ShardedCounter).
+ *
+ * Must be used from the main thread.
+ */
+public class FavouritesIndex {
+
+    private static final String TAG = "FavouritesIndex";
+
+    public static final String USERS = "users";
+    public static final String FAVOURITES = "favourites";
+
+    private final FirebaseFirestore db;
+
+    private String userId;
+    /** Item ID to category, so favourites in one category need no item lookups. */
+    private final Map<String, String> categories = new HashMap<>();
+    private boolean loaded = false;
+    private final List<Runnable> waiting = new ArrayList<>();
+
+    public FavouritesIndex(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public static CollectionReference favourites(FirebaseFirestore db, String userId) {
+        return db.collection(USERS).document(userId).collection(FAVOURITES);
+    }
+
+    public static DocumentReference favourite(FirebaseFirestore db, String userId, String itemId) {
+        return favourites(db, userId).document(itemId);
+    }
+
+    /** Contents of a favourite document. */
+    public static Map<String, Object> favouriteFields(String itemId, String category) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("itemId", itemId);
+        fields.put("category", category);
+        fields.put("addedAt", FieldValue.serverTimestamp());
+        return fields;
+    }
+
+    /**
+     * Runs {@code action} once the user's favourites are known, loading them first if
+     * this is a different user or nothing has been loaded yet. A failed load still runs
+     * the action (everything then shows as not liked) and is retried on the next call;
+     * so does a switch to another user or a clear() while the load is running.
+     */
+    public void whenLoaded(String userId, Runnable action) {
+        if (userId == null) {
+            action.run();
+            return;
+        }
+        if (!userId.equals(this.userId)) {
+            clear();
+            this.userId = userId;
+        }
+        if (loaded) {
+            action.run();
+            return;
+        }
+
+        waiting.add(action);
+        if (waiting.size() > 1) return;
+
+        favourites(db, userId).get()
+                .addOnSuccessListener(snapshot -> {
+                    if (!userId.equals(this.userId)) return;
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        categories.put(doc.getId(), doc.getString("category"));
+                    }
+                    loaded = true;
+                    Log.d(TAG, "Loaded " + categories.size() + " favourites");
+                    runWaiting();
+                })
+                .addOnFailureListener(e -> {
+                    if (!userId.equals(this.userId)) return;
+                    Log.e(TAG, "Failed to load favourites", e);
+                    runWaiting();
+                });
+    }
+
+    public boolean contains(String userId, String itemId) {
+        return userId != null && userId.equals(this.userId) && categories.containsKey(itemId);
+    }
+
+    /** IDs of the user's favourites, optionally limited to one category (null for all). */
+    public Set<String> itemIds(String userId, String category) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (userId == null || !userId.equals(this.userId)) return ids;
+        for (Map.Entry<String, String> entry : categories.entrySet()) {
+            if (category == null || category.equals(entry.getValue())) {
+                ids.add(entry.getKey());
+            }
+        }
+        return ids;
+    }
+
+    /** Applies a like or unlike by the current user locally. */
+    public void set(String userId, String itemId, String category, boolean liked) {
+        if (userId == null || !userId.equals(this.userId)) return;
+        if (liked) {
+            categories.put(itemId, category);
+        } else {
+            categories.remove(itemId);
+        }
+    }
+
+    /**
+     * Forgets everything, e.g. on sign-out. Actions still waiting for a load are run
+     * now, seeing no favourites, so no caller is left waiting for a load that was
+     * abandoned.
+     */
+    public void clear() {
+        userId = null;
+        categories.clear();
+        loaded = false;
+        runWaiting();
+    }
+
+    private void runWaiting() {
+        List<Runnable> actions = new ArrayList<>(waiting);
+        waiting.clear();
+        for (Runnable action : actions) action.run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off job that moves the old likedUsers arrays on "Clothes" documents into
+ * users/{uid}/favourites (see FavouritesIndex) and sets each item's Likes counter to
+ * the number of favourite documents the item then has: the moved users plus anyone
+ * who had already liked it on the new path, each counted once.
+ *
+ * The catalog is walked PAGE_SIZE documents at a time with a document-ID cursor. Per
+ * page the favourite documents are written first, in as many batches as they need;
+ * only once they have all committed is likedUsers deleted from the items, so an
+ * interrupted run loses nothing and can simply be started again from
+ * CatalogJobsActivity.
+ */
+public class FavouritesMigration {
+
+    private static final String TAG = "FavouritesMigration";
+
+    /** A counter reset plus the likedUsers delete is 14 writes per item, so a page fits in one batch. */
+    private static final int PAGE_SIZE = 30;
+    /** Firestore's limit on writes in one batch. */
+    private static final int MAX_BATCH_WRITES = 500;
+
+    private final FirebaseFirestore db;
+    private int migratedItems = 0;
+
+    public FavouritesMigration(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Runs the whole job; the task resolves to the number of items migrated. */
+    public Task<Integer> run() {
+        migratedItems = 0;
+        return migratePage(null);
+    }
+
+    private Task<Integer> migratePage(DocumentSnapshot after) {
+        Query page = db.collection(ClothingRepository.COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) page = page.startAfter(after);
+
+        List<DocumentSnapshot> docs = new ArrayList<>();
+        List<DocumentSnapshot> toMigrate = new ArrayList<>();
+        List<Long> likes = new ArrayList<>();
+        return page.get().onSuccessTask(snapshot -> {
+            docs.addAll(snapshot.getDocuments());
+
+            List<Task<Void>> commits = new ArrayList<>();
+            WriteBatch batch = db.batch();
+            int writes = 0;
+            for (DocumentSnapshot doc : docs) {
+                if (!doc.contains("likedUsers")) continue;
+                toMigrate.add(doc);
+                for (String userId : likedUsers(doc)) {
+                    if (writes == MAX_BATCH_WRITES) {
+                        commits.add(batch.commit());
+                        batch = db.batch();
+                        writes = 0;
+                    }
+                    batch.set(FavouritesIndex.favourite(db, userId, doc.getId()),
+                            FavouritesIndex.favouriteFields(doc.getId(), doc.getString("Category")));
+                    writes++;
+                }
+            }
+            if (writes > 0) commits.add(batch.commit());
+            return Tasks.whenAll(commits);
+        }).onSuccessTask(favouritesWritten -> {
+            // Counted once every favourite is written, so likes made on the new path
+            // before the migration are kept, as LikesReconciler would count them.
+            return LikesReconciler.countFavourites(db, toMigrate);
+        }).onSuccessTask(counts -> {
+            likes.addAll(counts);
+            // Counters are only copied onto summaries that already exist.
+            return CatalogSummary.summariesOf(db, toMigrate);
+        }).onSuccessTask(summaries -> {
+            WriteBatch batch = db.batch();
+            for (int i = 0; i < toMigrate.size(); i++) {
+                DocumentSnapshot doc = toMigrate.get(i);
+                LikesReconciler.resetCounter(batch, doc.getReference(), summaries.get(i),
+                        likes.get(i));
+                batch.update(doc.getReference(),
+                        "likedUsers", FieldValue.delete(),
+                        "updatedAt", FieldValue.serverTimestamp());
+            }
+            return toMigrate.isEmpty() ? Tasks.<Void>forResult(null) : batch.commit();
+        }).onSuccessTask(itemsUpdated -> {
+            migratedItems += toMigrate.size();
+            if (docs.size() < PAGE_SIZE) {
+                Log.d(TAG, "Migrated likedUsers of " + migratedItems + " items");
+                return Tasks.forResult(migratedItems);
+            }
+            return migratePage(docs.get(docs.size() - 1));
+        });
+    }
+
+    private static List<String> likedUsers(DocumentSnapshot doc) {
+        List<String> userIds = new ArrayList<>();
+        Object value = doc.get("likedUsers");
+        if (value instanceof List) {
+            for (Object userId : (List<?>) value) {
+                if (userId instanceof String) userIds.add((String) userId);
+            }
+        }
+        return userIds;
+    }
+}
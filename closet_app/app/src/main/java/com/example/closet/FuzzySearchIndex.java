@@ -0,0 +1,287 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant search over Name, Fabric, Fit, Care and Category, used when the exact
+ * search finds nothing ("cotten", "denm").
+ *
+ * Every distinct word of the items' search keys is indexed by its trigrams, padded at
+ * the start so a word's beginning counts most ("cot" gives "$$c", "$co", "cot"). A
+ * query word only looks at vocabulary words sharing enough of its trigrams to be
+ * within its edit budget (each edit breaks at most three), and those few candidates
+ * are verified with a bounded edit distance, both against the whole word and against
+ * its start so a half-typed word still matches. An item must match every query word;
+ * its rank is the average match quality blended with how viewed and liked it is.
+ *
+ * Immutable once built, but search() reuses scratch arrays: use one thread at a time.
+ */
+public class FuzzySearchIndex {
+
+    /** Share of the rank that comes from popularity rather than match quality. */
+    private static final float POPULARITY_WEIGHT = 0.2f;
+    /** A like counts for this many views. */
+    private static final int LIKE_WEIGHT = 3;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.9f;
+    private static final float FUZZY = 0.8f;
+    private static final float FUZZY_PREFIX = 0.7f;
+
+    private final List<ClothingItem> items;
+    private final float[] popularity;
+    private final String[] words;
+    /** Items containing each word, by word ID. */
+    private final int[][] wordItems;
+    /** Words containing each trigram. */
+    private final Map<String, int[]> trigramWords;
+
+    // Scratch space for search().
+    private final int[] trigramHits;
+    private final int[] matchedWords;
+    private final float[] quality;
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+
+    /** Indexes the items; takes a while for a large catalog, so build it off the main thread. */
+    public FuzzySearchIndex(List<ClothingItem> items) {
+        this.items = new ArrayList<>(items.size());
+        for (ClothingItem item : items) {
+            if (item != null) this.items.add(item);
+        }
+        int count = this.items.size();
+
+        Map<String, Integer> wordIds = new HashMap<>();
+        List<String> wordList = new ArrayList<>();
+        List<IntList> postings = new ArrayList<>();
+        popularity = new float[count];
+        float maxPopularity = 0f;
+        for (int i = 0; i < count; i++) {
+            ClothingItem item = this.items.get(i);
+            for (String word : new LinkedHashSet<>(SearchIndex.words(item.getSearchKey()))) {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = wordList.size();
+                    wordIds.put(word, id);
+                    wordList.add(word);
+                    postings.add(new IntList());
+                }
+                postings.get(id).add(i);
+            }
+            popularity[i] = (float) Math.log1p(Math.max(0, item.getViews())
+                    + (double) LIKE_WEIGHT * Math.max(0, item.getLikes()));
+            maxPopularity = Math.max(maxPopularity, popularity[i]);
+        }
+        if (maxPopularity > 0f) {
+            for (int i = 0; i < count; i++) popularity[i] /= maxPopularity;
+        }
+
+        words = wordList.toArray(new String[0]);
+        wordItems = new int[words.length][];
+        Map<String, IntList> grams = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            wordItems[w] = postings.get(w).toArray();
+            for (String gram : trigrams(words[w])) {
+                grams.computeIfAbsent(gram, g -> new IntList()).add(w);
+            }
+        }
+        trigramWords = new HashMap<>(grams.size() * 2);
+        for (Map.Entry<String, IntList> entry : grams.entrySet()) {
+            trigramWords.put(entry.getKey(), entry.getValue().toArray());
+        }
+
+        trigramHits = new int[words.length];
+        matchedWords = new int[count];
+        quality = new float[count];
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /** Items matching every word of the query, best first; equal ranks keep the indexed order. */
+    public List<ClothingItem> search(String query) {
+        List<String> queryWords = SearchIndex.tokenize(query);
+        if (queryWords.isEmpty()) return new ArrayList<>();
+
+        IntList candidates = new IntList();
+        for (int q = 0; q < queryWords.size(); q++) {
+            WordMatches matches = matchWord(queryWords.get(q));
+            for (int m = 0; m < matches.wordIds.length; m++) {
+                // Words arrive best first, so an item's first matching word is its best one.
+                for (int item : wordItems[matches.wordIds[m]]) {
+                    if (matchedWords[item] != q) continue;
+                    matchedWords[item] = q + 1;
+                    quality[item] += matches.scores[m];
+                    if (q == 0) candidates.add(item);
+                }
+            }
+        }
+
+        // Sorted as primitive longs: the rank's bits (descending) above the item's position.
+        int needed = queryWords.size();
+        long[] hits = new long[candidates.size()];
+        int hitCount = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int item = candidates.get(i);
+            if (matchedWords[item] == needed) {
+                float rank = (1f - POPULARITY_WEIGHT) * quality[item] / needed
+                        + POPULARITY_WEIGHT * popularity[item];
+                // For non-negative floats the bit pattern orders like the value.
+                hits[hitCount++] = ((long) (Integer.MAX_VALUE - Float.floatToIntBits(rank)) << 32) | item;
+            }
+            matchedWords[item] = 0;
+            quality[item] = 0f;
+        }
+        Arrays.sort(hits, 0, hitCount);
+
+        List<ClothingItem> results = new ArrayList<>(hitCount);
+        for (int i = 0; i < hitCount; i++) results.add(items.get((int) hits[i]));
+        return results;
+    }
+
+    /** Vocabulary words matching one query word, best first. */
+    private static final class WordMatches {
+        final int[] wordIds;
+        final float[] scores;
+
+        WordMatches(int[] wordIds, float[] scores) {
+            this.wordIds = wordIds;
+            this.scores = scores;
+        }
+    }
+
+    private WordMatches matchWord(String query) {
+        int maxEdits = maxEdits(query.length());
+        Set<String> grams = trigrams(query);
+        int needed = Math.max(1, grams.size() - 3 * maxEdits);
+
+        IntList touched = new IntList();
+        for (String gram : grams) {
+            int[] ids = trigramWords.get(gram);
+            if (ids == null) continue;
+            for (int w : ids) {
+                if (trigramHits[w]++ == 0) touched.add(w);
+            }
+        }
+
+        IntList matched = new IntList();
+        float[] wordScores = new float[touched.size()];
+        for (int i = 0; i < touched.size(); i++) {
+            int w = touched.get(i);
+            if (trigramHits[w] >= needed) {
+                float score = score(query, words[w], maxEdits);
+                if (score > 0f) {
+                    wordScores[matched.size()] = score;
+                    matched.add(w);
+                }
+            }
+            trigramHits[w] = 0;
+        }
+
+        Integer[] order = new Integer[matched.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Float.compare(wordScores[b], wordScores[a]));
+        int[] ids = new int[order.length];
+        float[] scores = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = matched.get(order[i]);
+            scores[i] = wordScores[order[i]];
+        }
+        return new WordMatches(ids, scores);
+    }
+
+    /** Match quality of a word for a query word, or 0 if it is more than maxEdits away. */
+    private float score(String query, String word, int maxEdits) {
+        if (word.equals(query)) return EXACT;
+        if (word.startsWith(query)) return PREFIX;
+        int[] row = editDistances(query, word, maxEdits);
+        if (row == null) return 0f;
+
+        float length = query.length() + 1f;
+        int edits = row[word.length()];
+        if (edits <= maxEdits) return FUZZY * (1f - edits / length);
+        // A half-typed word: the closest start of the word, a few chars either way.
+        int from = Math.max(1, query.length() - maxEdits);
+        int to = Math.min(word.length(), query.length() + maxEdits);
+        edits = maxEdits + 1;
+        for (int end = from; end <= to; end++) edits = Math.min(edits, row[end]);
+        return edits <= maxEdits ? FUZZY_PREFIX * (1f - edits / length) : 0f;
+    }
+
+    /** Short words tolerate no typos, longer ones one or two. */
+    static int maxEdits(int length) {
+        if (length <= 3) return 0;
+        return length <= 6 ? 1 : 2;
+    }
+
+    /**
+     * Last row of the Levenshtein table of {@code a} against {@code b}: entry k is the
+     * distance from {@code a} to the first k chars of {@code b}. Returns null as soon as
+     * every entry must exceed {@code max}. The row is scratch space, valid until the next call.
+     */
+    private int[] editDistances(String a, String b, int max) {
+        int bLength = b.length();
+        if (previousRow.length <= bLength) {
+            previousRow = new int[bLength + 1];
+            currentRow = new int[bLength + 1];
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= bLength; j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= bLength; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return null;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous;
+    }
+
+    /** Distinct trigrams of a word, padded with '$' at the start only. */
+    static Set<String> trigrams(String word) {
+        Set<String> grams = new LinkedHashSet<>();
+        String padded = "$$" + word;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** Growable int array, to keep postings unboxed. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.closet;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The text filter every list screen's search bar uses (through
+ * SearchDebouncer.filtering), so they all match the same fields the same way. Each
+ * query is compiled into a SearchQuery and checked against the items' search keys,
+ * which are gathered into an array once per list.
+ *
+ * Recent results are reused. A query that narrows an earlier one ("cot" after "co")
+ * can only match items the earlier one matched, so only that smaller result is
+ * re-checked; going back to an earlier query (backspace) is answered from the cache.
+ * Typing therefore costs time in proportion to the matches, not the whole list.
+ * Matches are collected as positions in one reused buffer and kept as an exact-size
+ * int array behind a read-only list view, so a keystroke allocates neither a growing
+ * list nor a copy of the items. The cache is dropped as soon as the list being
+ * filtered is different; spotting that is one reference comparison per item, far
+ * cheaper than matching it. A query with no exact match falls back to a
+ * FuzzySearchIndex over the same list, so a typo still finds something.
+ *
+ * Not thread-safe; SearchDebouncer only uses it on AppExecutors.background().
+ */
+public class IncrementalFilter {
+
+    private static final int MAX_CACHED_QUERIES = 32;
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private List<ClothingItem> source = Collections.emptyList();
+    private ClothingItem[] items = new ClothingItem[0];
+    /** Search key of each item of {@link #items}, or null where the item is null. */
+    private String[] keys = new String[0];
+    /** Scratch space for the positions matched by one query. */
+    private int[] buffer = NO_POSITIONS;
+
+    /** Results against {@link #source}, keyed by normalized query, least recently used first. */
+    private final Map<String, Matches> results =
+            new LinkedHashMap<String, Matches>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Matches> eldest) {
+                    return size() > MAX_CACHED_QUERIES;
+                }
+            };
+    private FuzzySearchIndex fuzzy;
+
+    /**
+     * Items of {@code items} matching the query, in order, or if there are none the
+     * typo-tolerant matches from a FuzzySearchIndex, best first. Returns null if
+     * {@code cancelled} turned true part-way; partial results are not cached.
+     */
+    public List<ClothingItem> filter(List<ClothingItem> items, String query, BooleanSupplier cancelled) {
+        return filter(items, SearchQuery.compile(query), cancelled);
+    }
+
+    /** As above, for a query compiled already. */
+    public List<ClothingItem> filter(List<ClothingItem> items, SearchQuery query, BooleanSupplier cancelled) {
+        if (!sameItems(source, items)) setSource(items);
+
+        if (query.isEmpty()) return source;
+        List<ClothingItem> exact = exactMatches(query, cancelled);
+        if (exact == null || !exact.isEmpty()) return exact;
+
+        // Built on the first miss only; most lists are never searched with a typo.
+        if (fuzzy == null) fuzzy = new FuzzySearchIndex(source);
+        return Collections.unmodifiableList(fuzzy.search(query.normalized()));
+    }
+
+    private void setSource(List<ClothingItem> list) {
+        items = list.toArray(new ClothingItem[0]);
+        source = Collections.unmodifiableList(Arrays.asList(items));
+        keys = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] != null) keys[i] = items[i].getSearchKey();
+        }
+        if (buffer.length < items.length) buffer = new int[items.length];
+        results.clear();
+        fuzzy = null;
+    }
+
+    /**
+     * Exact matches, narrowed from a cached earlier result where possible. Only these are
+     * cached: a query narrowing one without exact matches can't have any either.
+     */
+    private Matches exactMatches(SearchQuery query, BooleanSupplier cancelled) {
+        Matches cached = results.get(query.normalized());
+        if (cached != null) return cached;
+
+        Matches narrowest = narrowestCachedSuperset(query);
+        int count = 0;
+        if (narrowest == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (i % 64 == 0 && cancelled.getAsBoolean()) return null;
+                if (keys[i] != null && query.matchesKey(keys[i])) buffer[count++] = i;
+            }
+        } else {
+            int[] candidates = narrowest.positions;
+            for (int c = 0; c < candidates.length; c++) {
+                if (c % 64 == 0 && cancelled.getAsBoolean()) return null;
+                if (query.matchesKey(keys[candidates[c]])) buffer[count++] = candidates[c];
+            }
+        }
+        Matches result = new Matches(query, count == 0 ? NO_POSITIONS : Arrays.copyOf(buffer, count));
+        results.put(query.normalized(), result);
+        return result;
+    }
+
+    /** The smallest cached result of a query this one narrows, or null to scan the whole list. */
+    private Matches narrowestCachedSuperset(SearchQuery query) {
+        Matches narrowest = null;
+        for (Matches cached : results.values()) {
+            if ((narrowest == null || cached.size() < narrowest.size()) && query.narrows(cached.query)) {
+                narrowest = cached;
+            }
+        }
+        return narrowest;
+    }
+
+    private static boolean sameItems(List<ClothingItem> a, List<ClothingItem> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+
+    /** Read-only view of the items at some positions of the filtered list. */
+    private final class Matches extends AbstractList<ClothingItem> implements RandomAccess {
+        final SearchQuery query;
+        final int[] positions;
+        private final ClothingItem[] of = items;
+
+        Matches(SearchQuery query, int[] positions) {
+            this.query = query;
+            this.positions = positions;
+        }
+
+        @Override
+        public ClothingItem get(int index) {
+            return of[positions[index]];
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
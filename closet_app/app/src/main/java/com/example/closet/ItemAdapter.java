@@ -51,7 +51,8 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
 
     public ItemAdapter(Context context, List<ClothingItem> items, int layoutId) {
         this.context = context;
-        this.items = items;
+        // Own copy, so screens editing their lists don't change rows behind our back
+        this.items = new ArrayList<>(items);
         this.layoutId = layoutId;
     }
 
@@ -87,13 +88,34 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
     }
 
     /**
-     * Update the items list and notify adapter
+     * Replace the items list, rebinding only rows that were added, removed or replaced
      */
-    public void updateItems(List<ClothingItem> newItems) {
-        if (newItems != null) {
-            Log.d(TAG, "Updating adapter with " + newItems.size() + " items");
-            this.items = new ArrayList<>(newItems); // ✅ Replace the list instead of clearing
-            notifyDataSetChanged();
+    public void submitItems(List<ClothingItem> newItems) {
+        List<ClothingItem> oldItems = items;
+        items = new ArrayList<>(newItems);
+        OrderedDiff.dispatch(this, oldItems, items);
+    }
+
+    /**
+     * Remove the row showing the given item, if any
+     */
+    public void removeItem(String itemId) {
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (itemId.equals(items.get(i).getId())) {
+                items.remove(i);
+                notifyItemRemoved(i);
+            }
+        }
+    }
+
+    /**
+     * Rebind the row showing the given item, if any
+     */
+    public void refreshItem(String itemId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (itemId.equals(items.get(i).getId())) {
+                notifyItemChanged(i);
+            }
         }
     }
 
@@ -0,0 +1,105 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes the rankings into one document per board, Leaderboards/{topLiked,
+ * mostViewed}, each holding the top SIZE CatalogSummary entries in rank order plus a
+ * builtAt time. The home carousel and the Most Viewed screen then cost one document
+ * read instead of a sorted query over the whole collection.
+ *
+ * Boards are rebuilt from ClothesSummary only by the buildLeaderboards job, which
+ * CatalogJobsActivity (debug builds) runs when started from a cron job on a host,
+ * hourly. The app never writes them: ClothingRepository reads a board, and falls back
+ * to the sorted summary query when the board is missing or older than MAX_AGE_MS.
+ */
+public class LeaderboardBuilder {
+
+    private static final String TAG = "LeaderboardBuilder";
+
+    public static final String COLLECTION = "Leaderboards";
+    public static final String TOP_LIKED = "topLiked";
+    public static final String MOST_VIEWED = "mostViewed";
+
+    /** Entries kept per board; screens take a prefix of it. */
+    public static final int SIZE = 10;
+    /**
+     * How old a board may get before readers stop trusting it. Well above the hourly
+     * rebuild, so a few missed runs still leave the boards in use.
+     */
+    public static final long MAX_AGE_MS = 6 * 60 * 60 * 1000L;
+
+    private final FirebaseFirestore db;
+
+    public LeaderboardBuilder(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Rebuilds every board. */
+    public Task<Void> run() {
+        return Tasks.whenAll(build(TOP_LIKED), build(MOST_VIEWED));
+    }
+
+    /** Rebuilds one board from the current summaries. */
+    public Task<Void> build(String board) {
+        return db.collection(CatalogSummary.COLLECTION)
+                .orderBy(sortField(board), Query.Direction.DESCENDING)
+                .limit(SIZE)
+                .get()
+                .onSuccessTask(snapshot -> {
+                    List<Map<String, Object>> entries = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        Map<String, Object> entry = doc.getData() != null
+                                ? new HashMap<>(doc.getData()) : new HashMap<>();
+                        entry.put("id", doc.getId());
+                        entries.add(entry);
+                    }
+                    Map<String, Object> fields = new HashMap<>();
+                    fields.put("items", entries);
+                    fields.put("builtAt", FieldValue.serverTimestamp());
+                    Log.d(TAG, "Built " + board + " with " + entries.size() + " items");
+                    return db.collection(COLLECTION).document(board).set(fields);
+                });
+    }
+
+    /** Ranked items stored on a board document. */
+    public static List<ClothingItem> toItems(DocumentSnapshot board) {
+        List<ClothingItem> items = new ArrayList<>();
+        Object entries = board.get("items");
+        if (!(entries instanceof List)) return items;
+        for (Object entry : (List<?>) entries) {
+            if (!(entry instanceof Map<?, ?>)) continue;
+            Map<String, Object> data = new HashMap<>();
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) entry).entrySet()) {
+                if (field.getKey() instanceof String) data.put((String) field.getKey(), field.getValue());
+            }
+            if (data.get("id") instanceof String) {
+                items.add(CatalogSummary.toItem((String) data.get("id"), data));
+            }
+        }
+        return items;
+    }
+
+    /** Whether a board document is missing or older than MAX_AGE_MS. */
+    public static boolean isStale(DocumentSnapshot board) {
+        Timestamp builtAt = board.exists() ? board.getTimestamp("builtAt") : null;
+        return builtAt == null || System.currentTimeMillis() - builtAt.toDate().getTime() > MAX_AGE_MS;
+    }
+
+    private static String sortField(String board) {
+        return TOP_LIKED.equals(board) ? ShardedCounter.LIKES : ShardedCounter.VIEWS;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Turns leaderboard entries into the items a ranking hands to the screens. An entry is
+ * a snapshot from when the board was built, so it only replaces the cached copy of its
+ * item when it is newer; either way the screens get the cached instance, which is the
+ * one setLiked and the cache updates keep current.
+ */
+final class LeaderboardEntries {
+
+    private LeaderboardEntries() {
+    }
+
+    /**
+     * The cached items for the first {@code limit} entries, in rank order.
+     *
+     * @param cache         the cached items by ID
+     * @param cacheComplete whether the cache holds the whole catalog; an entry missing
+     *                      from a complete cache was deleted and is left out
+     * @param adopt         puts an entry in the cache in place of an older or missing copy
+     */
+    static List<ClothingItem> resolve(List<ClothingItem> entries, int limit,
+                                      Map<String, ClothingItem> cache, boolean cacheComplete,
+                                      Consumer<ClothingItem> adopt) {
+        List<ClothingItem> top = new ArrayList<>(Math.min(limit, entries.size()));
+        for (ClothingItem entry : entries) {
+            if (top.size() == limit) break;
+            ClothingItem cached = cache.get(entry.getId());
+            if (cached == null && cacheComplete) continue;
+            if (cached == null || isNewer(entry, cached)) {
+                adopt.accept(entry);
+                cached = cache.get(entry.getId());
+            }
+            top.add(cached);
+        }
+        return top;
+    }
+
+    private static boolean isNewer(ClothingItem item, ClothingItem than) {
+        return item.getUpdatedAt() != null
+                && (than.getUpdatedAt() == null || item.getUpdatedAt().compareTo(than.getUpdatedAt()) > 0);
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queue of like/unlike intents.
+ * Every toggle only records the desired final state for (user, item); rapid toggles
+ * on the same item collapse to that one state. DEBOUNCE_MS after the last toggle the
+ * queue is written in one transaction that adds or removes the user's favourite
+ * document (see FavouritesIndex) and the Likes counter together, and only for items
+ * whose state really changes, so a retried flush can't double-count. Pending intents
+ * are kept in SharedPreferences so they survive a restart.
+ *
+ * Only the signed-in user's intents are sent, since the security rules reject writes
+ * to anyone else's favourites. Intents left by another user are dropped, as are ones
+ * the server refuses (PERMISSION_DENIED, NOT_FOUND): retrying them would fail the
+ * same way and hold up everything queued behind them.
+ *
+ * The queued state is applied to the shared ClothingRepository cache straight away
+ * and announced to every registered Listener, so all visible adapters agree with it.
+ *
+ * Must be used from the main thread.
+ */
+public class LikeQueue {
+
+    private static final String TAG = "LikeQueue";
+
+    private static final String PREFS_NAME = "pending_likes";
+    private static final long DEBOUNCE_MS = 1500L;
+    /**
+     * Each intent reads its item inside the transaction, so a small chunk keeps
+     * contention retries cheap.
+     */
+    private static final int MAX_INTENTS_PER_TRANSACTION = 20;
+
+    /** Notified on the main thread whenever the queued like state of an item changes. */
+    public interface Listener {
+        void onLikeChanged(String itemId, boolean liked);
+    }
+
+    private static LikeQueue instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private SharedPreferences prefs;
+    private boolean flushInFlight = false;
+
+    private LikeQueue() {
+    }
+
+    public static synchronized LikeQueue getInstance() {
+        if (instance == null) {
+            instance = new LikeQueue();
+        }
+        return instance;
+    }
+
+    /** Called once from ClosetApplication; also sends anything left by a previous process. */
+    public void init(Context context) {
+        if (prefs != null) return;
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        flush();
+    }
+
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener)) listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Queues the user's like (or unlike) of an item and restarts the debounce window. */
+    public void setLiked(String userId, String itemId, boolean liked) {
+        if (prefs == null || userId == null || itemId == null) return;
+
+        prefs.edit().putBoolean(key(userId, itemId), liked).apply();
+        ClothingRepository.getInstance().setLiked(itemId, userId, liked);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onLikeChanged(itemId, liked);
+        }
+
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.postDelayed(flushRunnable, DEBOUNCE_MS);
+    }
+
+    /** The queued state for an item, or null if nothing is waiting to be written. */
+    public Boolean pendingState(String userId, String itemId) {
+        if (prefs == null || userId == null || itemId == null) return null;
+        String key = key(userId, itemId);
+        return prefs.contains(key) ? prefs.getBoolean(key, false) : null;
+    }
+
+    /** Sends what is pending right away; called when the app is backgrounded. */
+    public void flushNow() {
+        mainHandler.removeCallbacks(flushRunnable);
+        flush();
+    }
+
+    /**
+     * Called just before the user signs out: sends what they still have queued, then
+     * forgets it, so none of it is retried under the next account. An intent that
+     * isn't written by this last flush is lost.
+     */
+    public void signOut() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        flushNow();
+        if (prefs == null || user == null) return;
+        drop(intentsOf(user.getUid(), Integer.MAX_VALUE).keySet());
+    }
+
+    private void flush() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (prefs == null || flushInFlight || user == null) return;
+        String userId = user.getUid();
+
+        Set<String> otherUsers = new HashSet<>(prefs.getAll().keySet());
+        otherUsers.removeAll(intentsOf(userId, Integer.MAX_VALUE).keySet());
+        if (!otherUsers.isEmpty()) {
+            Log.w(TAG, "Dropping " + otherUsers.size() + " like intents of signed-out users");
+            drop(otherUsers);
+        }
+
+        Map<String, Boolean> batchIntents = intentsOf(userId, MAX_INTENTS_PER_TRANSACTION);
+        if (batchIntents.isEmpty()) return;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        Set<String> changedItems = new HashSet<>();
+        flushInFlight = true;
+        db.runTransaction(transaction -> {
+            changedItems.clear();
+            // Read every item summary and favourite first: Firestore transactions need
+            // all reads before writes. The slim summary is enough to get the category;
+            // an item not summarised yet (or whose summary was pruned) is read in full.
+            Map<String, DocumentSnapshot> items = new HashMap<>();
+            Map<String, DocumentSnapshot> favourites = new HashMap<>();
+            for (String key : batchIntents.keySet()) {
+                String[] parts = key.split("/", 2);
+                if (!items.containsKey(parts[1])) {
+                    DocumentSnapshot item = transaction.get(CatalogSummary.summary(db, parts[1]));
+                    if (!item.exists()) {
+                        item = transaction.get(
+                                db.collection(ClothingRepository.COLLECTION).document(parts[1]));
+                    }
+                    items.put(parts[1], item);
+                }
+                favourites.put(key, transaction.get(FavouritesIndex.favourite(db, parts[0], parts[1])));
+            }
+
+            for (Map.Entry<String, Boolean> intent : batchIntents.entrySet()) {
+                String[] parts = intent.getKey().split("/", 2);
+                DocumentSnapshot item = items.get(parts[1]);
+                DocumentSnapshot favourite = favourites.get(intent.getKey());
+                boolean liked = intent.getValue();
+                // Only a real change touches the favourite and Likes, which makes
+                // retrying the same intent harmless. A deleted item can still be
+                // unliked; liking one is dropped, as there is nothing left to like.
+                if (favourite.exists() == liked || (liked && !item.exists())) continue;
+
+                if (liked) {
+                    transaction.set(favourite.getReference(),
+                            FavouritesIndex.favouriteFields(parts[1], item.getString("Category")));
+                } else {
+                    transaction.delete(favourite.getReference());
+                }
+                if (item.exists()) {
+                    ShardedCounter.increment(transaction,
+                            db.collection(ClothingRepository.COLLECTION).document(parts[1]),
+                            ShardedCounter.LIKES, liked ? 1 : -1);
+                    changedItems.add(parts[1]);
+                }
+            }
+            return null;
+        })
+                .addOnSuccessListener(aVoid -> {
+                    flushInFlight = false;
+                    Log.d(TAG, "Flushed " + batchIntents.size() + " like intents, "
+                            + changedItems.size() + " items changed");
+                    CounterRollup.getInstance().markDirty(changedItems, ShardedCounter.LIKES);
+                    CounterRollup.getInstance().runIfDue();
+                    removeApplied(batchIntents);
+                    if (!intentsOf(userId, 1).isEmpty()) {
+                        mainHandler.removeCallbacks(flushRunnable);
+                        mainHandler.postDelayed(flushRunnable, DEBOUNCE_MS);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    flushInFlight = false;
+                    if (isRefused(e)) {
+                        Log.e(TAG, "Dropping " + batchIntents.size() + " refused like intents", e);
+                        removeApplied(batchIntents);
+                        return;
+                    }
+                    Log.e(TAG, "Failed to flush like intents", e);
+                });
+    }
+
+    /** Failures that retrying the same intents can't get past. */
+    private static boolean isRefused(Exception e) {
+        if (!(e instanceof FirebaseFirestoreException)) return false;
+        FirebaseFirestoreException.Code code = ((FirebaseFirestoreException) e).getCode();
+        return code == FirebaseFirestoreException.Code.PERMISSION_DENIED
+                || code == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+
+    /** Up to {@code max} of the user's pending intents, keyed like the preferences. */
+    private Map<String, Boolean> intentsOf(String userId, int max) {
+        Map<String, Boolean> intents = new HashMap<>();
+        String prefix = userId + "/";
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (intents.size() == max) break;
+            if (entry.getKey().startsWith(prefix) && entry.getValue() instanceof Boolean) {
+                intents.put(entry.getKey(), (Boolean) entry.getValue());
+            }
+        }
+        return intents;
+    }
+
+    private void drop(Set<String> keys) {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String key : keys) editor.remove(key);
+        editor.apply();
+    }
+
+    /**
+     * Drops intents that were written (or refused), unless the user toggled the item
+     * again while the batch was in flight.
+     */
+    private void removeApplied(Map<String, Boolean> applied) {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, Boolean> intent : applied.entrySet()) {
+            if (prefs.contains(intent.getKey())
+                    && prefs.getBoolean(intent.getKey(), false) == intent.getValue()) {
+                editor.remove(intent.getKey());
+            }
+        }
+        editor.apply();
+    }
+
+    private static String key(String userId, String itemId) {
+        return userId + "/" + itemId;
+    }
+}
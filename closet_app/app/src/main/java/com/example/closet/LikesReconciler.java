@@ -0,0 +1,128 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintenance job that recomputes every item's Likes count from the favourite
+ * documents pointing at it and fixes the ones that drifted, so orderBy("Likes").limit(n)
+ * stays correct without any client downloading the whole collection to rank it.
+ *
+ * The catalog is walked PAGE_SIZE documents at a time with a document-ID cursor; each
+ * item is counted with a server-side count() over the "favourites" collection group
+ * (which needs the collection-group index on itemId), and each page's fixes go out in
+ * one WriteBatch that resets the item's ShardedCounter to the true count. Run it from
+ * CatalogJobsActivity after FavouritesMigration and while nobody is liking items: a
+ * like landing on a shard between the read and the reset is overwritten.
+ */
+public class LikesReconciler {
+
+    private static final String TAG = "LikesReconciler";
+
+    /**
+     * A fix writes 13 documents (11 shards, parent, summary); 35 of them stay under
+     * the 500-write batch limit.
+     */
+    private static final int PAGE_SIZE = 35;
+
+    private final FirebaseFirestore db;
+    private int fixed = 0;
+
+    public LikesReconciler(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Runs the whole job; the task resolves to the number of items that were fixed. */
+    public Task<Integer> run() {
+        fixed = 0;
+        return reconcilePage(null);
+    }
+
+    private Task<Integer> reconcilePage(DocumentSnapshot after) {
+        Query page = db.collection(ClothingRepository.COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) page = page.startAfter(after);
+
+        List<DocumentSnapshot> docs = new ArrayList<>();
+        List<DocumentSnapshot> drifted = new ArrayList<>();
+        List<Long> actualCounts = new ArrayList<>();
+        return page.get().onSuccessTask(snapshot -> {
+            docs.addAll(snapshot.getDocuments());
+            return countFavourites(db, docs);
+        }).onSuccessTask(counts -> {
+            for (int i = 0; i < docs.size(); i++) {
+                DocumentSnapshot doc = docs.get(i);
+                long actual = counts.get(i);
+                Long stored = doc.getLong(ShardedCounter.LIKES);
+                if (stored != null && stored == actual) continue;
+
+                drifted.add(doc);
+                actualCounts.add(actual);
+                Log.d(TAG, doc.getId() + ": Likes " + stored + " -> " + actual);
+            }
+            return CatalogSummary.summariesOf(db, drifted);
+        }).onSuccessTask(summaries -> {
+            WriteBatch batch = db.batch();
+            for (int i = 0; i < drifted.size(); i++) {
+                resetCounter(batch, drifted.get(i).getReference(), summaries.get(i),
+                        actualCounts.get(i));
+            }
+
+            Task<Void> commit = drifted.isEmpty() ? Tasks.forResult(null) : batch.commit();
+            return commit.onSuccessTask(done -> {
+                fixed += drifted.size();
+                if (docs.size() < PAGE_SIZE) {
+                    Log.d(TAG, "Reconciled Likes, fixed " + fixed + " items");
+                    return Tasks.forResult(fixed);
+                }
+                return reconcilePage(docs.get(docs.size() - 1));
+            });
+        });
+    }
+
+    /**
+     * Counts the favourite documents pointing at each item, in order, with one
+     * server-side count() over the "favourites" collection group per item.
+     */
+    static Task<List<Long>> countFavourites(FirebaseFirestore db, List<DocumentSnapshot> items) {
+        List<Task<AggregateQuerySnapshot>> counts = new ArrayList<>();
+        for (DocumentSnapshot item : items) {
+            counts.add(db.collectionGroup(FavouritesIndex.FAVOURITES)
+                    .whereEqualTo("itemId", item.getId())
+                    .count()
+                    .get(AggregateSource.SERVER));
+        }
+        return Tasks.<AggregateQuerySnapshot>whenAllSuccess(counts).onSuccessTask(snapshots -> {
+            List<Long> result = new ArrayList<>();
+            for (AggregateQuerySnapshot snapshot : snapshots) result.add(snapshot.getCount());
+            return Tasks.forResult(result);
+        });
+    }
+
+    /**
+     * Resets the item's Likes counter to {@code count} and sets the same field on its
+     * summary. A summary that doesn't exist is left for SummaryIndexer to write in full.
+     */
+    static void resetCounter(WriteBatch batch, DocumentReference item, DocumentSnapshot summary,
+                             long count) {
+        ShardedCounter.reset(batch, item, ShardedCounter.LIKES, count);
+        if (summary.exists()) {
+            batch.update(summary.getReference(),
+                    CatalogSummary.counterUpdate(ShardedCounter.LIKES, count));
+        }
+    }
+}
@@ -6,7 +6,7 @@ import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
 import android.view.View;
-import android.widget.EditText;
+import android.widget.AutoCompleteTextView;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
@@ -17,21 +17,17 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.view.GravityCompat;
 import androidx.drawerlayout.widget.DrawerLayout;
+import androidx.lifecycle.Lifecycle;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldValue;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QuerySnapshot;
-import com.google.firebase.firestore.SetOptions;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class ListActivity extends AppCompatActivity implements
         RowListItemAdapter.OnItemClickListener,
@@ -40,21 +36,67 @@ public class ListActivity extends AppCompatActivity implements
     public static final String EXTRA_CATEGORY = "category";
     private static final String TAG = "ListActivity";
 
+    // Category lists load a page at a time; the next page is requested once the
+    // user is within PREFETCH_DISTANCE rows of the end.
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
+
     private RecyclerView recyclerViewItems;
     private ProgressBar progressBar;
     private TextView textEmptyState;
     private DrawerLayout drawerLayout;
     private ImageView hamburgerIcon, logoIcon;
     private TextView logoTitle;
-    private EditText searchBar;
+    private AutoCompleteTextView searchBar;
 
-    private FirebaseFirestore firestore;
+    private ClothingRepository repository;
     private RowListItemAdapter itemAdapter;
     private List<ClothingItem> clothingItems = new ArrayList<>();
     private List<ClothingItem> filteredItems = new ArrayList<>();
     private String selectedCategory = null;
     private boolean isSearchMode = false;
 
+    private ClothingRepository.PageCursor nextPage = null;
+    private boolean hasMorePages = true;
+    private boolean isLoadingPage = false;
+    private String currentFilter = "";
+    /** The latest global search result, before the facet chips narrow it. */
+    private List<ClothingItem> searchResults = new ArrayList<>();
+
+    // Global search goes to the repository's index; the category filter runs over
+    // clothingItems on a worker. Either way only the latest query's result is shown,
+    // narrowed by whichever facet chips are picked.
+    private FacetBar facets;
+    private final SearchDebouncer.Search filterCategory =
+            SearchDebouncer.filtering(() -> facets.apply(clothingItems));
+    private final SearchDebouncer search = new SearchDebouncer(
+            (query, run) -> {
+                if (isSearchMode) {
+                    searchGlobally(query, run);
+                } else {
+                    filterCategory.run(query, run);
+                }
+            },
+            this::showResults);
+
+    private final LikeQueue.Listener likeListener = (itemId, liked) -> itemAdapter.refreshItem(itemId);
+
+    // Live mode: once a category is on screen, items added to it or changed are merged
+    // into the loaded rows, and only the rows that change are inserted, rebound or removed.
+    private LiveQuery liveQuery;
+    private final LiveQuery.Listener liveListener = new LiveQuery.Listener() {
+        @Override
+        public void onItemsChanged(List<ClothingItem> changed, Set<String> removedIds) {
+            mergeChanges(changed, removedIds);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            // The rows already on screen stay; they just stop updating.
+            Log.w(TAG, "Live updates stopped", e);
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -62,7 +104,7 @@ public class ListActivity extends AppCompatActivity implements
         ImageButton back = findViewById(R.id.btn_back);
         back.setOnClickListener(v -> finish());
         initializeViews();
-        firestore = FirebaseFirestore.getInstance();
+        repository = ClothingRepository.getInstance();
         setupRecyclerView();
         setupSearch();
         setupNavigation();
@@ -73,9 +115,10 @@ public class ListActivity extends AppCompatActivity implements
         if (searchQuery != null && !searchQuery.isEmpty()) {
             isSearchMode = true;
             logoTitle.setText("Closet - Search");
-            searchBar.setText(searchQuery);
+            searchBar.setText(searchQuery, false);
             searchBar.setSelection(searchQuery.length());
-            performSearchOnly(searchQuery);
+            showLoading(true);
+            search.submitNow(searchQuery);
         } else {
             isSearchMode = false;
             if (selectedCategory == null || selectedCategory.isEmpty()) {
@@ -122,120 +165,262 @@ public class ListActivity extends AppCompatActivity implements
     }
 
     private void setupSearch() {
+        facets = new FacetBar(findViewById(R.id.facet_chips), this::onFacetsChanged);
         searchBar.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void afterTextChanged(Editable s) {}
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
+                String query = s.toString();
                 if (isSearchMode) {
-                    performSearchOnly(s.toString());
+                    search.submit(query);
+                } else if (query.trim().isEmpty()) {
+                    filterItemsWithinCategory(query);
                 } else {
-                    filterItemsWithinCategory(s.toString());
+                    currentFilter = query;
+                    search.submit(query);
                 }
             }
         });
+        searchBar.setOnEditorActionListener((v, actionId, event) -> {
+            SuggestionStore.getInstance().recordQuery(searchBar.getText().toString());
+            searchBar.dismissDropDown();
+            return false;
+        });
+        // Picking a suggestion has already replaced the text; show its results without the delay.
+        SuggestionAdapter.attach(searchBar, search::submitNow);
     }
 
     private void setupRecyclerView() {
         itemAdapter = new RowListItemAdapter(this, filteredItems);
         itemAdapter.setOnItemClickListener(this);
         itemAdapter.setOnItemLikeListener(this);
-        recyclerViewItems.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewItems.setLayoutManager(layoutManager);
         recyclerViewItems.setAdapter(itemAdapter);
         recyclerViewItems.setHasFixedSize(true);
+        recyclerViewItems.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                maybeLoadNextPage();
+            }
+        });
     }
 
-    private void performSearchOnly(String query) {
-        showLoading(true);
-        firestore.collection("Clothes").get().addOnCompleteListener(task -> {
-            showLoading(false);
-            if (task.isSuccessful() && task.getResult() != null) {
-                filteredItems.clear();
-                String q = query.toLowerCase().trim();
-                for (DocumentSnapshot doc : task.getResult()) {
-                    ClothingItem item = doc.toObject(ClothingItem.class);
-                    if (item != null) {
-                        boolean matches = (item.getName() != null && item.getName().toLowerCase().contains(q)) ||
-                                (item.getFabric() != null && item.getFabric().toLowerCase().contains(q)) ||
-                                (item.getFit() != null && item.getFit().toLowerCase().contains(q)) ||
-                                (item.getCategory() != null && item.getCategory().toLowerCase().contains(q));
-                        if (matches) {
-                            item.setId(doc.getId());
-                            filteredItems.add(item);
-                        }
-                    }
-                }
-                updateUI();
-            } else {
-                Toast.makeText(this, "Search failed.", Toast.LENGTH_SHORT).show();
+    /** Requests the next page once the last visible row is close to the end of the list. */
+    private void maybeLoadNextPage() {
+        if (isSearchMode || isLoadingPage || !hasMorePages) return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerViewItems.getLayoutManager();
+        if (layoutManager == null) return;
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= itemAdapter.getItemCount() - 1 - PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    private void searchGlobally(String query, SearchDebouncer.Run run) {
+        repository.search(query, currentUserId(), new ClothingRepository.ItemsCallback() {
+            @Override
+            public void onItemsLoaded(List<ClothingItem> items) {
+                run.publish(items);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (run.isStale()) return;
+                showLoading(false);
+                Toast.makeText(ListActivity.this, "Search failed.", Toast.LENGTH_SHORT).show();
                 showEmptyState(true);
             }
         });
     }
 
+    /**
+     * Re-applies the category filter straight away, e.g. after rows were loaded or
+     * changed. With no filter the list is copied synchronously, since the live
+     * listener then edits filteredItems and the adapter position by position.
+     */
     private void filterItemsWithinCategory(String query) {
-        filteredItems.clear();
-        String q = query.toLowerCase().trim();
-
-        if (q.isEmpty()) {
+        currentFilter = query;
+        if (!isFiltering()) {
+            search.cancel();
+            facets.refresh(clothingItems);
+            filteredItems.clear();
             filteredItems.addAll(clothingItems);
+            updateUI();
+            return;
+        }
+        search.submitNow(query);
+    }
+
+    /** Whether the category list is narrowed at all, rather than shown as loaded. */
+    private boolean isFiltering() {
+        return !currentFilter.trim().isEmpty() || facets.hasSelection();
+    }
+
+    private void onFacetsChanged() {
+        if (isSearchMode) {
+            showResults(searchResults);
         } else {
-            for (ClothingItem item : clothingItems) {
-                if (item != null) {
-                    boolean matches =
-                            (item.getName() != null && item.getName().toLowerCase().contains(q)) ||
-                                    (item.getFabric() != null && item.getFabric().toLowerCase().contains(q)) ||
-                                    (item.getFit() != null && item.getFit().toLowerCase().contains(q)) ||
-                                    (item.getCare() != null && item.getCare().toLowerCase().contains(q)) ||
-                                    (item.getCategory() != null && item.getCategory().toLowerCase().contains(q));
-
-                    if (matches) {
-                        filteredItems.add(item);
-                    }
-                }
-            }
+            filterItemsWithinCategory(currentFilter);
         }
+    }
 
+    private void showResults(List<ClothingItem> items) {
+        if (isSearchMode) {
+            showLoading(false);
+            searchResults = items;
+            items = facets.apply(items);
+        }
+        filteredItems.clear();
+        filteredItems.addAll(items);
         updateUI();
     }
 
-
     private void loadClothingItems() {
+        clothingItems.clear();
+        filteredItems.clear();
+        nextPage = null;
+        hasMorePages = true;
         showLoading(true);
-        firestore.collection("Clothes")
-                .whereEqualTo("Category", selectedCategory)
-                .get()
-                .addOnSuccessListener(snapshot -> {
-                    showLoading(false);
-                    clothingItems.clear();
-                    for (DocumentSnapshot doc : snapshot) {
-                        ClothingItem item = doc.toObject(ClothingItem.class);
-                        if (item != null) {
-                            item.setId(doc.getId());
-                            clothingItems.add(item);
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        isLoadingPage = true;
+        boolean firstPage = clothingItems.isEmpty();
+        repository.getCategoryPage(selectedCategory, nextPage, PAGE_SIZE, currentUserId(),
+                new ClothingRepository.PageCallback() {
+                    @Override
+                    public void onPageLoaded(List<ClothingItem> items, ClothingRepository.PageCursor next) {
+                        isLoadingPage = false;
+                        nextPage = next;
+                        hasMorePages = next != null;
+                        if (firstPage) showLoading(false);
+
+                        // The live query may already have inserted some of these rows.
+                        List<ClothingItem> newItems = new ArrayList<>();
+                        for (ClothingItem item : items) {
+                            if (indexOfId(clothingItems, item.getId()) < 0) newItems.add(item);
+                        }
+                        clothingItems.addAll(newItems);
+                        if (!isFiltering()) {
+                            facets.refresh(clothingItems);
+                            filteredItems.addAll(newItems);
+                            if (firstPage) {
+                                updateUI();
+                            } else {
+                                itemAdapter.appendItems(newItems);
+                            }
+                        } else {
+                            filterItemsWithinCategory(currentFilter);
+                        }
+
+                        startLiveQuery();
+                        // A short first page may not fill the screen, so no scroll event
+                        // would ever ask for more.
+                        recyclerViewItems.post(() -> maybeLoadNextPage());
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        isLoadingPage = false;
+                        if (firstPage) {
+                            showLoading(false);
+                            Toast.makeText(ListActivity.this, "Failed to load category items.", Toast.LENGTH_SHORT).show();
+                            showEmptyState(true);
                         }
                     }
-                    filteredItems.clear();
-                    filteredItems.addAll(clothingItems);
-                    updateUI();
-                })
-                .addOnFailureListener(e -> {
-                    showLoading(false);
-                    Toast.makeText(this, "Failed to load category items.", Toast.LENGTH_SHORT).show();
-                    showEmptyState(true);
                 });
     }
 
-    private void updateUI() {
-        if (filteredItems.isEmpty()) {
-            showEmptyState(true);
+    /** Starts watching the category once its first page is on screen. */
+    private void startLiveQuery() {
+        if (isSearchMode || liveQuery != null) return;
+        liveQuery = repository.watchCategory(selectedCategory, currentUserId(), liveListener);
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            liveQuery.start();
+        }
+    }
+
+    /**
+     * Applies live changes to the loaded rows, which stay ordered by document ID. A new
+     * item is only inserted if it sorts before the end of what has been loaded; past
+     * that it arrives with its page.
+     */
+    private void mergeChanges(List<ClothingItem> changed, Set<String> removedIds) {
+        boolean filtering = isFiltering();
+        int shift = 0;
+        for (String itemId : removedIds) {
+            int position = indexOfId(clothingItems, itemId);
+            if (position < 0) continue;
+            clothingItems.remove(position);
+            shift--;
+            if (!filtering) {
+                filteredItems.remove(position);
+                itemAdapter.removeItemAt(position);
+            }
+        }
+        for (ClothingItem item : changed) {
+            int position = indexOfId(clothingItems, item.getId());
+            if (position >= 0) {
+                clothingItems.set(position, item);
+                if (!filtering) {
+                    filteredItems.set(position, item);
+                    itemAdapter.changeItem(position, item);
+                }
+                continue;
+            }
+            position = insertionPoint(item.getId());
+            if (position == clothingItems.size() && hasMorePages) continue;
+            clothingItems.add(position, item);
+            shift++;
+            if (!filtering) {
+                filteredItems.add(position, item);
+                itemAdapter.insertItem(position, item);
+            }
+        }
+        // A local page cursor counts rows, so it moves with them.
+        if (nextPage != null) nextPage = nextPage.shiftedBy(shift);
+
+        if (filtering) {
+            filterItemsWithinCategory(currentFilter);
         } else {
-            showEmptyState(false);
-            itemAdapter.updateItems(filteredItems);
+            facets.refresh(clothingItems);
+            showEmptyState(filteredItems.isEmpty());
         }
     }
 
+    /** Where an item with this ID goes in the loaded rows. */
+    private int insertionPoint(String itemId) {
+        int position = 0;
+        while (position < clothingItems.size()
+                && clothingItems.get(position).getId().compareTo(itemId) < 0) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int indexOfId(List<ClothingItem> items, String itemId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (Objects.equals(items.get(i).getId(), itemId)) return i;
+        }
+        return -1;
+    }
+
+    private String currentUserId() {
+        return FirebaseAuth.getInstance().getCurrentUser() != null
+                ? FirebaseAuth.getInstance().getCurrentUser().getUid()
+                : null;
+    }
+
+    private void updateUI() {
+        // Kept in step even when empty: the live listener edits the adapter's rows by position.
+        itemAdapter.submitItems(filteredItems);
+        showEmptyState(filteredItems.isEmpty());
+    }
+
     private void showLoading(boolean show) {
         progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
         recyclerViewItems.setVisibility(show ? View.GONE : View.VISIBLE);
@@ -262,22 +447,29 @@ public class ListActivity extends AppCompatActivity implements
 
     @Override
     public void onItemLike(ClothingItem item, int position, boolean isLiked) {
-        String currentUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("likedUsers", isLiked ?
-                FieldValue.arrayUnion(currentUserId) :
-                FieldValue.arrayRemove(currentUserId));
-
-        firestore.collection("Clothes").document(item.getId())
-                .update(updates)
-                .addOnSuccessListener(aVoid -> {
-                    item.setLikedByCurrentUser(isLiked);
-                    itemAdapter.notifyItemChanged(position);
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to update like", Toast.LENGTH_SHORT).show();
-                    item.setLikedByCurrentUser(!isLiked);
-                    itemAdapter.notifyItemChanged(position);
-                });
+        String currentUserId = currentUserId();
+        if (currentUserId == null || item.getId() == null) return;
+        // Queued and debounced; the row is refreshed through likeListener.
+        LikeQueue.getInstance().setLiked(currentUserId, item.getId(), isLiked);
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        LikeQueue.getInstance().addListener(likeListener);
+        if (liveQuery != null) liveQuery.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        LikeQueue.getInstance().removeListener(likeListener);
+        if (liveQuery != null) liveQuery.stop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        search.cancel();
     }
 }
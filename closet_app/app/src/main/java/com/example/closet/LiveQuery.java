@@ -0,0 +1,160 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Change feed for the items a screen has loaded, so it can insert, rebind or remove
+ * just the rows that changed. It reports items added or edited since it was created,
+ * never the ones already on screen, so watching costs nothing until something changes.
+ *
+ * While the repository's local catalog is complete, changes come from CatalogSync's
+ * delta sync and no listener is attached. Otherwise one snapshot listener watches the
+ * query's documents whose updatedAt is newer than the last time the feed was stopped
+ * (or created), so Firestore only sends documents that changed; every summary write
+ * bumps updatedAt. Deleted documents show up the next time the list is loaded.
+ *
+ * Snapshots are parsed on AppExecutors.background(); the parsed items are handed to
+ * the repository and the listener on the main thread. Screens create one through
+ * ClothingRepository, start it in onStart() and stop it in onStop().
+ */
+public class LiveQuery {
+
+    private static final String TAG = "LiveQuery";
+
+    /** How far back from the device clock the listener starts, to cover clock skew. */
+    private static final long CLOCK_SKEW_MS = 5 * 60 * 1000L;
+
+    public interface Listener {
+        /**
+         * Items that were added or changed, and IDs of items that left the query.
+         * Items may repeat ones already delivered or already loaded.
+         */
+        void onItemsChanged(List<ClothingItem> changed, Set<String> removedIds);
+        void onError(Exception e);
+    }
+
+    /** The repository's local catalog, which feeds the query while it is complete. */
+    interface LocalCatalog {
+        boolean isComplete();
+        void addWatcher(LiveQuery query);
+        void removeWatcher(LiveQuery query);
+    }
+
+    private final FirebaseFirestore db;
+    private final LocalCatalog catalog;
+    private final Function<Timestamp, QueryDescriptor> changedSince;
+    private final Predicate<ClothingItem> matches;
+    private final Function<DocumentSnapshot, ClothingItem> parser;
+    private final Consumer<List<ClothingItem>> adopter;
+    private final Listener listener;
+
+    private ListenerRegistration registration;
+    private boolean watchingCatalog = false;
+    /** Changes from here on are reported; moved forward on every stop. */
+    private long sinceMillis = System.currentTimeMillis() - CLOCK_SKEW_MS;
+    /** Bumped on every start/stop so results of an older registration are dropped. */
+    private int generation = 0;
+
+    /**
+     * @param changedSince the query for documents updated after a time
+     * @param matches      whether a local catalog item belongs to the query
+     * @param parser       turns a document into an item; called on the background thread
+     * @param adopter      receives every parsed batch on the main thread before the listener
+     */
+    LiveQuery(FirebaseFirestore db, LocalCatalog catalog,
+              Function<Timestamp, QueryDescriptor> changedSince, Predicate<ClothingItem> matches,
+              Function<DocumentSnapshot, ClothingItem> parser,
+              Consumer<List<ClothingItem>> adopter, Listener listener) {
+        this.db = db;
+        this.catalog = catalog;
+        this.changedSince = changedSince;
+        this.matches = matches;
+        this.parser = parser;
+        this.adopter = adopter;
+        this.listener = listener;
+    }
+
+    public void start() {
+        if (registration != null || watchingCatalog) return;
+        if (catalog.isComplete()) {
+            watchingCatalog = true;
+            catalog.addWatcher(this);
+            return;
+        }
+
+        int started = ++generation;
+        QueryDescriptor query = changedSince.apply(new Timestamp(new Date(sinceMillis)));
+        registration = query.toQuery(db).addSnapshotListener(AppExecutors.background(), (snapshot, e) -> {
+            if (e != null) {
+                AppExecutors.mainThread().execute(() -> {
+                    if (started != generation) return;
+                    Log.e(TAG, "Listener failed: " + query.key(), e);
+                    listener.onError(e);
+                });
+                return;
+            }
+            if (snapshot == null || snapshot.getDocumentChanges().isEmpty()) return;
+
+            List<ClothingItem> changed = new ArrayList<>();
+            Set<String> removed = new HashSet<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    removed.add(change.getDocument().getId());
+                } else {
+                    changed.add(parser.apply(change.getDocument()));
+                }
+            }
+            AppExecutors.mainThread().execute(() -> {
+                if (started != generation) return;
+                adopter.accept(changed);
+                listener.onItemsChanged(Collections.unmodifiableList(changed), removed);
+            });
+        });
+    }
+
+    public void stop() {
+        if (watchingCatalog) {
+            watchingCatalog = false;
+            catalog.removeWatcher(this);
+        }
+        if (registration == null) return;
+        generation++;
+        registration.remove();
+        registration = null;
+        sinceMillis = System.currentTimeMillis() - CLOCK_SKEW_MS;
+    }
+
+    /**
+     * Called by the local catalog on the main thread after a sync. Changed items outside
+     * the query are reported as removed, since they may have just left it.
+     */
+    void onCatalogChanged(List<ClothingItem> changed, Set<String> removedIds) {
+        List<ClothingItem> matching = new ArrayList<>();
+        Set<String> removed = new HashSet<>(removedIds);
+        for (ClothingItem item : changed) {
+            if (matches.test(item)) {
+                matching.add(item);
+            } else {
+                removed.add(item.getId());
+            }
+        }
+        if (matching.isEmpty() && removed.isEmpty()) return;
+        listener.onItemsChanged(Collections.unmodifiableList(matching), removed);
+    }
+}
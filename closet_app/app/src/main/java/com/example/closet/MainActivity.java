@@ -4,8 +4,8 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.Window;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
-import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
@@ -19,7 +19,6 @@ import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,13 +36,15 @@ public class MainActivity extends AppCompatActivity
     private RecyclerView recyclerViewTopPicks;
     private ItemAdapter topPicksAdapter;
 
-    private FirebaseFirestore firestore;
     private FirebaseAuth firebaseAuth;
     private String currentUserId;
 
     private GoogleSignInClient googleSignInClient;
     private List<ClothingItem> topPicks = new ArrayList<>();
 
+    private final LikeQueue.Listener likeListener =
+            (itemId, liked) -> topPicksAdapter.refreshItem(itemId);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -54,9 +55,8 @@ public class MainActivity extends AppCompatActivity
 
         setContentView(R.layout.activity_main);
 
-        // Initialize Firebase + Firestore
+        // Initialize Firebase Auth
         firebaseAuth = FirebaseAuth.getInstance();
-        firestore    = FirebaseFirestore.getInstance();
 
         // Configure Google Sign-In (deprecated API, suppressed)
         setupGoogleSignIn();
@@ -71,19 +71,19 @@ public class MainActivity extends AppCompatActivity
         setupNavigationDrawer();
         setupCategoryButtons();
         setupTopPicksRecyclerView();
-        loadTopPicks();
+        // Top picks are loaded in onResume(), which always follows onCreate().
 
-        // Search bar: full-field search
-        EditText searchBar = findViewById(R.id.search_bar);
+        // Search bar: full-field search, with suggestions as you type
+        AutoCompleteTextView searchBar = findViewById(R.id.search_bar);
         searchBar.setOnEditorActionListener((v, actionId, event) -> {
             String query = searchBar.getText().toString().trim();
             if (!query.isEmpty()) {
-                Intent intent = new Intent(MainActivity.this, ListActivity.class);
-                intent.putExtra("SEARCH_QUERY", query);
-                startActivity(intent);
+                SuggestionStore.getInstance().recordQuery(query);
+                openSearch(query);
             }
             return true;
         });
+        SuggestionAdapter.attach(searchBar, this::openSearch);
 
         // "Swipe to explore →" opens TopPicksActivity
         findViewById(R.id.text_swipe_to_explore).setOnClickListener(v ->
@@ -113,6 +113,12 @@ public class MainActivity extends AppCompatActivity
         });
     }
 
+    private void openSearch(String query) {
+        Intent intent = new Intent(MainActivity.this, ListActivity.class);
+        intent.putExtra("SEARCH_QUERY", query);
+        startActivity(intent);
+    }
+
     @SuppressWarnings("deprecation")
     private void setupGoogleSignIn() {
         // still using the deprecated GoogleSignInOptions for now
@@ -190,7 +196,7 @@ public class MainActivity extends AppCompatActivity
             public void onTopPicksLoaded(List<ClothingItem> items) {
                 topPicks.clear();
                 topPicks.addAll(items);
-                topPicksAdapter.updateItems(topPicks);
+                topPicksAdapter.submitItems(topPicks);
             }
             @Override
             public void onError(Exception e) {
@@ -213,22 +219,20 @@ public class MainActivity extends AppCompatActivity
     @Override
     public void onItemLike(ClothingItem item, int position, boolean isLiked) {
         if (currentUserId == null || item.getId() == null) return;
+        // Queued and debounced; the row is refreshed through likeListener.
+        LikeQueue.getInstance().setLiked(currentUserId, item.getId(), isLiked);
+    }
 
-        firestore.collection("Clothes").document(item.getId())
-                .update("likedUsers", isLiked
-                        ? com.google.firebase.firestore.FieldValue.arrayUnion(currentUserId)
-                        : com.google.firebase.firestore.FieldValue.arrayRemove(currentUserId))
-                .addOnSuccessListener(aVoid -> {
-                    item.setLikedByCurrentUser(isLiked);
-                    topPicksAdapter.notifyItemChanged(position);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to update like", e);
-                    item.setLikedByCurrentUser(!isLiked);
-                    topPicksAdapter.notifyItemChanged(position);
-                    Toast.makeText(this,
-                            "Failed to update like", Toast.LENGTH_SHORT).show();
-                });
+    @Override
+    protected void onStart() {
+        super.onStart();
+        LikeQueue.getInstance().addListener(likeListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        LikeQueue.getInstance().removeListener(likeListener);
     }
 
     @Override
@@ -19,9 +19,6 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,8 +32,11 @@ public class MostViewedActivity extends AppCompatActivity implements ItemAdapter
     private final List<ClothingItem> mostViewedList = new ArrayList<>();
     private final List<ClothingItem> filteredList = new ArrayList<>();
 
+    private final LikeQueue.Listener likeListener = (itemId, liked) -> adapter.refreshItem(itemId);
+
     private EditText searchBar;
-    private FirebaseFirestore firestore;
+    private final SearchDebouncer search = new SearchDebouncer(
+            SearchDebouncer.filtering(() -> mostViewedList), this::showResults);
     private FirebaseAuth firebaseAuth;
     private String currentUserId;
 
@@ -92,7 +92,6 @@ public class MostViewedActivity extends AppCompatActivity implements ItemAdapter
 
         // RecyclerView setup
         recyclerView = findViewById(R.id.recycler_view_items);
-        firestore = FirebaseFirestore.getInstance();
         firebaseAuth = FirebaseAuth.getInstance();
 
         if (firebaseAuth.getCurrentUser() != null) {
@@ -113,7 +112,7 @@ public class MostViewedActivity extends AppCompatActivity implements ItemAdapter
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterItems(s.toString());
+                search.submit(s.toString());
             }
         });
 
@@ -121,49 +120,28 @@ public class MostViewedActivity extends AppCompatActivity implements ItemAdapter
     }
 
     private void loadMostViewedItems() {
-        firestore.collection("Clothes")
-                .orderBy("Views", Query.Direction.DESCENDING)
-                .limit(10)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    mostViewedList.clear();
-                    filteredList.clear();
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        ClothingItem item = doc.toObject(ClothingItem.class);
-                        if (item != null) {
-                            item.setId(doc.getId());
-
-                            List<String> likedUsers = (List<String>) doc.get("likedUsers");
-                            boolean liked = likedUsers != null && currentUserId != null && likedUsers.contains(currentUserId);
-                            item.setLikedByCurrentUser(liked);
-
-                            mostViewedList.add(item);
-                            filteredList.add(item);
-                        }
-                    }
-                    adapter.updateItems(filteredList);
-                    Log.d(TAG, "Loaded top 10 most viewed items");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load most viewed items", e);
-                    Toast.makeText(this, "Error loading most viewed items", Toast.LENGTH_SHORT).show();
-                });
-    }
-
-    private void filterItems(String query) {
-        String lower = query.toLowerCase().trim();
-        filteredList.clear();
+        ClothingRepository.getInstance().getMostViewed(10, currentUserId, new ClothingRepository.ItemsCallback() {
+            @Override
+            public void onItemsLoaded(List<ClothingItem> items) {
+                mostViewedList.clear();
+                mostViewedList.addAll(items);
+                // Through the search, so a query typed while loading still applies.
+                search.submitNow(searchBar.getText().toString());
+                Log.d(TAG, "Loaded top 10 most viewed items");
+            }
 
-        for (ClothingItem item : mostViewedList) {
-            if ((item.getName() != null && item.getName().toLowerCase().contains(lower)) ||
-                    (item.getCategory() != null && item.getCategory().toLowerCase().contains(lower)) ||
-                    (item.getFabric() != null && item.getFabric().toLowerCase().contains(lower)) ||
-                    (item.getFit() != null && item.getFit().toLowerCase().contains(lower))) {
-                filteredList.add(item);
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to load most viewed items", e);
+                Toast.makeText(MostViewedActivity.this, "Error loading most viewed items", Toast.LENGTH_SHORT).show();
             }
-        }
+        });
+    }
 
-        adapter.updateItems(filteredList);
+    private void showResults(List<ClothingItem> items) {
+        filteredList.clear();
+        filteredList.addAll(items);
+        adapter.submitItems(filteredList);
     }
 
     @Override
@@ -176,21 +154,25 @@ public class MostViewedActivity extends AppCompatActivity implements ItemAdapter
     @Override
     public void onItemLike(ClothingItem item, int position, boolean isLiked) {
         if (currentUserId == null || item.getId() == null) return;
+        // Queued and debounced; the row is refreshed through likeListener.
+        LikeQueue.getInstance().setLiked(currentUserId, item.getId(), isLiked);
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        LikeQueue.getInstance().addListener(likeListener);
+    }
 
-        firestore.collection("Clothes")
-                .document(item.getId())
-                .update("likedUsers", isLiked
-                        ? com.google.firebase.firestore.FieldValue.arrayUnion(currentUserId)
-                        : com.google.firebase.firestore.FieldValue.arrayRemove(currentUserId))
-                .addOnSuccessListener(aVoid -> {
-                    item.setLikedByCurrentUser(isLiked);
-                    adapter.notifyItemChanged(position);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to update like status", e);
-                    item.setLikedByCurrentUser(!isLiked);
-                    adapter.notifyItemChanged(position);
-                    Toast.makeText(this, "Failed to update like", Toast.LENGTH_SHORT).show();
-                });
+    @Override
+    protected void onStop() {
+        super.onStop();
+        LikeQueue.getInstance().removeListener(likeListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        search.cancel();
     }
 }
@@ -0,0 +1,92 @@
+package com.example.closet;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Notifies an adapter of the rows that differ between two lists whose shared items
+ * are in the same relative order, such as two search results over the same source
+ * list. Runs in linear time, unlike a general diff, and coalesces neighbouring rows
+ * into range notifications. If the order doesn't hold, falls back to
+ * notifyDataSetChanged().
+ */
+final class OrderedDiff {
+
+    private static final int INSERT = 0;
+    private static final int REMOVE = 1;
+    private static final int CHANGE = 2;
+
+    private OrderedDiff() {
+    }
+
+    /** Call after the adapter's list has been replaced by {@code newItems}. */
+    static void dispatch(RecyclerView.Adapter<?> adapter,
+                         List<ClothingItem> oldItems, List<ClothingItem> newItems) {
+        Set<String> oldIds = ids(oldItems);
+        Set<String> newIds = ids(newItems);
+
+        // {type, position, count}, in the order they must be applied.
+        List<int[]> ops = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < oldItems.size() || j < newItems.size()) {
+            if (i < oldItems.size() && !newIds.contains(oldItems.get(i).getId())) {
+                add(ops, REMOVE, position);
+                i++;
+            } else if (j < newItems.size() && !oldIds.contains(newItems.get(j).getId())) {
+                add(ops, INSERT, position);
+                position++;
+                j++;
+            } else if (i < oldItems.size() && j < newItems.size()
+                    && Objects.equals(oldItems.get(i).getId(), newItems.get(j).getId())) {
+                if (oldItems.get(i) != newItems.get(j)) add(ops, CHANGE, position);
+                position++;
+                i++;
+                j++;
+            } else {
+                adapter.notifyDataSetChanged();
+                return;
+            }
+        }
+
+        for (int[] op : ops) {
+            switch (op[0]) {
+                case INSERT:
+                    adapter.notifyItemRangeInserted(op[1], op[2]);
+                    break;
+                case REMOVE:
+                    adapter.notifyItemRangeRemoved(op[1], op[2]);
+                    break;
+                default:
+                    adapter.notifyItemRangeChanged(op[1], op[2]);
+                    break;
+            }
+        }
+    }
+
+    /** Appends a one-row op, merging it into the previous op when they are adjacent. */
+    private static void add(List<int[]> ops, int type, int position) {
+        int[] last = ops.isEmpty() ? null : ops.get(ops.size() - 1);
+        if (last != null && last[0] == type) {
+            // Removed rows all leave from the same position; inserted and changed rows follow on.
+            int next = type == REMOVE ? last[1] : last[1] + last[2];
+            if (position == next) {
+                last[2]++;
+                return;
+            }
+        }
+        ops.add(new int[]{type, position, 1});
+    }
+
+    private static Set<String> ids(List<ClothingItem> items) {
+        Set<String> ids = new HashSet<>(items.size() * 2);
+        for (ClothingItem item : items) ids.add(item.getId());
+        return ids;
+    }
+}
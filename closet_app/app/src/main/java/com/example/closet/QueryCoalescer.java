@@ -0,0 +1,81 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Single-flight layer in front of Firestore queries.
+ * Callers asking for the same QueryDescriptor while a request is in flight share its
+ * Task instead of sending another one, and a finished result is handed out again for
+ * REUSE_WINDOW_MS. Several screens on the back stack (or repeated taps) asking for
+ * the same data therefore cost one read.
+ *
+ * Must be used from the main thread.
+ */
+public class QueryCoalescer {
+
+    private static final String TAG = "QueryCoalescer";
+
+    private static final long REUSE_WINDOW_MS = 10 * 1000L;
+
+    private static class Recent {
+        final QuerySnapshot snapshot;
+        final long completedAt;
+
+        Recent(QuerySnapshot snapshot, long completedAt) {
+            this.snapshot = snapshot;
+            this.completedAt = completedAt;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final Map<String, Task<QuerySnapshot>> inFlight = new HashMap<>();
+    private final Map<String, Recent> recent = new HashMap<>();
+
+    public QueryCoalescer(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public Task<QuerySnapshot> get(QueryDescriptor descriptor) {
+        String key = descriptor.key();
+        dropExpired();
+
+        Recent done = recent.get(key);
+        if (done != null) {
+            Log.d(TAG, "Reusing result for " + key);
+            return Tasks.forResult(done.snapshot);
+        }
+
+        Task<QuerySnapshot> pending = inFlight.get(key);
+        if (pending != null) {
+            Log.d(TAG, "Joining in-flight request for " + key);
+            return pending;
+        }
+
+        Task<QuerySnapshot> task = descriptor.toQuery(db).get();
+        inFlight.put(key, task);
+        task.addOnCompleteListener(t -> {
+            inFlight.remove(key);
+            if (t.isSuccessful()) {
+                recent.put(key, new Recent(t.getResult(), System.currentTimeMillis()));
+            }
+        });
+        return task;
+    }
+
+    private void dropExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Recent> values = recent.values().iterator();
+        while (values.hasNext()) {
+            if (now - values.next().completedAt >= REUSE_WINDOW_MS) values.remove();
+        }
+    }
+}
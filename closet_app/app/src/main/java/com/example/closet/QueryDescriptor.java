@@ -0,0 +1,139 @@
+package com.example.closet;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Canonical description of a Firestore query (collection, filters, order, limit,
+ * cursor). Two descriptors for the same query produce the same {@link #key()} no
+ * matter in which order their filters were added, so the key can be used to cache
+ * results and to coalesce identical requests.
+ */
+public class QueryDescriptor {
+
+    /** Order-by field meaning "document ID". */
+    public static final String DOCUMENT_ID = "__name__";
+
+    private static final String OP_EQUAL = "==";
+    private static final String OP_ARRAY_CONTAINS = "array-contains";
+    private static final String OP_GREATER_THAN = ">";
+
+    private static class Filter implements Comparable<Filter> {
+        final String field;
+        final String op;
+        final Object value;
+
+        Filter(String field, String op, Object value) {
+            this.field = field;
+            this.op = op;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Filter other) {
+            return toString().compareTo(other.toString());
+        }
+
+        @Override
+        public String toString() {
+            return field + " " + op + " " + value;
+        }
+    }
+
+    private final String collection;
+    private final List<Filter> filters = new ArrayList<>();
+    private String orderField;
+    private Query.Direction orderDirection = Query.Direction.ASCENDING;
+    private long limit = 0;
+    private DocumentSnapshot startAfter;
+
+    public QueryDescriptor(String collection) {
+        this.collection = collection;
+    }
+
+    public QueryDescriptor whereEqualTo(String field, Object value) {
+        filters.add(new Filter(field, OP_EQUAL, value));
+        return this;
+    }
+
+    public QueryDescriptor whereArrayContains(String field, Object value) {
+        filters.add(new Filter(field, OP_ARRAY_CONTAINS, value));
+        return this;
+    }
+
+    public QueryDescriptor whereGreaterThan(String field, Object value) {
+        filters.add(new Filter(field, OP_GREATER_THAN, value));
+        return this;
+    }
+
+    public QueryDescriptor orderBy(String field, Query.Direction direction) {
+        this.orderField = field;
+        this.orderDirection = direction;
+        return this;
+    }
+
+    public QueryDescriptor limit(long limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public QueryDescriptor startAfter(DocumentSnapshot snapshot) {
+        this.startAfter = snapshot;
+        return this;
+    }
+
+    public String key() {
+        List<Filter> sorted = new ArrayList<>(filters);
+        Collections.sort(sorted);
+        StringBuilder key = new StringBuilder(collection);
+        for (Filter filter : sorted) {
+            key.append('|').append(filter);
+        }
+        if (orderField != null) {
+            key.append("|orderBy ").append(orderField).append(' ').append(orderDirection);
+        }
+        if (limit > 0) {
+            key.append("|limit ").append(limit);
+        }
+        if (startAfter != null) {
+            key.append("|after ").append(startAfter.getId());
+        }
+        return key.toString();
+    }
+
+    public Query toQuery(FirebaseFirestore db) {
+        Query query = db.collection(collection);
+        for (Filter filter : filters) {
+            if (OP_EQUAL.equals(filter.op)) {
+                query = query.whereEqualTo(filter.field, filter.value);
+            } else if (OP_ARRAY_CONTAINS.equals(filter.op)) {
+                query = query.whereArrayContains(filter.field, filter.value);
+            } else if (OP_GREATER_THAN.equals(filter.op)) {
+                query = query.whereGreaterThan(filter.field, filter.value);
+            }
+        }
+        if (orderField != null) {
+            query = DOCUMENT_ID.equals(orderField)
+                    ? query.orderBy(FieldPath.documentId(), orderDirection)
+                    : query.orderBy(orderField, orderDirection);
+        }
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        if (limit > 0) {
+            query = query.limit(limit);
+        }
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
@@ -48,7 +48,7 @@ public class RowListItemAdapter extends RecyclerView.Adapter<RowListItemAdapter.
 
     public RowListItemAdapter(Context context, List<ClothingItem> items) {
         this.context = context;
-        // Make a defensive copy so updateItems() won’t clear the original list
+        // Make a defensive copy so submitItems() won’t clear the original list
         this.items = new ArrayList<>(items);
     }
 
@@ -82,12 +82,47 @@ public class RowListItemAdapter extends RecyclerView.Adapter<RowListItemAdapter.
         return (items != null) ? items.size() : 0;
     }
 
-    /** Update full list and refresh. */
-    public void updateItems(List<ClothingItem> newItems) {
-        if (newItems != null) {
-            items.clear();
+    /** Replace the list, rebinding only rows that were added, removed or replaced. */
+    public void submitItems(List<ClothingItem> newItems) {
+        List<ClothingItem> oldItems = new ArrayList<>(items);
+        items.clear();
+        items.addAll(newItems);
+        OrderedDiff.dispatch(this, oldItems, items);
+    }
+
+    /** Append a page of items, rebinding only the new rows. */
+    public void appendItems(List<ClothingItem> newItems) {
+        if (newItems != null && !newItems.isEmpty()) {
+            int start = items.size();
             items.addAll(newItems);
-            notifyDataSetChanged();
+            notifyItemRangeInserted(start, newItems.size());
+        }
+    }
+
+    /** Insert one row, e.g. for a document added to a live query. */
+    public void insertItem(int position, ClothingItem item) {
+        items.add(position, item);
+        notifyItemInserted(position);
+    }
+
+    /** Replace the row at the given position with a changed copy of its item. */
+    public void changeItem(int position, ClothingItem item) {
+        items.set(position, item);
+        notifyItemChanged(position);
+    }
+
+    /** Remove the row at the given position. */
+    public void removeItemAt(int position) {
+        items.remove(position);
+        notifyItemRemoved(position);
+    }
+
+    /** Rebind the row showing the given item, if any. */
+    public void refreshItem(String itemId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (itemId.equals(items.get(i).getId())) {
+                notifyItemChanged(i);
+            }
         }
     }
 
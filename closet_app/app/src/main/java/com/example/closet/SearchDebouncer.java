@@ -0,0 +1,109 @@
+package com.example.closet;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Search pipeline behind a screen's search bar.
+ * Keystrokes are debounced by DELAY_MS, so typing quickly runs one search instead of
+ * one per character. Every submit starts a new generation: a search still running
+ * for an older query sees {@link Run#isStale()} and gives up, and its result is
+ * dropped rather than published, so the listener only ever gets the latest query's
+ * items. Must be used from the main thread; the listener is called there.
+ */
+public class SearchDebouncer {
+
+    public static final long DELAY_MS = 200;
+
+    /** Gets the items for one query and hands them to {@link Run#publish}. */
+    public interface Search {
+        void run(String query, Run run);
+    }
+
+    public interface Listener {
+        void onResults(List<ClothingItem> items);
+    }
+
+    /** One submitted query. */
+    public final class Run {
+        private final int id;
+
+        private Run(int id) {
+            this.id = id;
+        }
+
+        /** True once a newer query was submitted; safe to call from any thread. */
+        public boolean isStale() {
+            return id != generation;
+        }
+
+        /** Delivers the result on the main thread, unless a newer query was submitted by then. */
+        public void publish(List<ClothingItem> items) {
+            AppExecutors.mainThread().execute(() -> {
+                if (!isStale()) listener.onResults(items);
+            });
+        }
+    }
+
+    private final Search search;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /** Only written on the main thread; read by workers to stop stale runs early. */
+    private volatile int generation = 0;
+    private Runnable pending;
+
+    public SearchDebouncer(Search search, Listener listener) {
+        this.search = search;
+        this.listener = listener;
+    }
+
+    /** Searches once the user has stopped typing for DELAY_MS. */
+    public void submit(String query) {
+        schedule(query, DELAY_MS);
+    }
+
+    /** Searches right away, e.g. because the list being searched changed. */
+    public void submitNow(String query) {
+        schedule(query, 0);
+    }
+
+    /** Drops the pending and running search; call from onDestroy(). */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            handler.removeCallbacks(pending);
+            pending = null;
+        }
+    }
+
+    private void schedule(String query, long delayMs) {
+        cancel();
+        Run run = new Run(generation);
+        pending = () -> {
+            pending = null;
+            search.run(query, run);
+        };
+        handler.postDelayed(pending, delayMs);
+    }
+
+    /**
+     * A Search that filters a copy of {@code source} with an IncrementalFilter on
+     * AppExecutors.background(). The source is read on the main thread when the
+     * search starts, so the screen can keep editing its list.
+     */
+    public static Search filtering(Supplier<List<ClothingItem>> source) {
+        IncrementalFilter filter = new IncrementalFilter();
+        return (query, run) -> {
+            List<ClothingItem> items = new ArrayList<>(source.get());
+            AppExecutors.background().execute(() -> {
+                List<ClothingItem> matches = filter.filter(items, query, run::isStale);
+                if (matches != null) run.publish(matches);
+            });
+        };
+    }
+}
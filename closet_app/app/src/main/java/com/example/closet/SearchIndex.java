@@ -0,0 +1,130 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index for global search over Name, Fabric, Fit, Care and
+ * Category. Each field is split into word tokens in SearchText form (lowercase,
+ * accents folded); a TreeMap from token to item IDs lets every query word match as a
+ * prefix ("cot" finds "cotton") by scanning the sorted range of tokens that start
+ * with it. An item matches when every query word matches one of its tokens. Items are
+ * indexed one at a time, so the index can be kept up to date as single items change
+ * instead of being rebuilt.
+ *
+ * Not thread-safe: ClothingRepository builds it in the background, hands it to the
+ * main thread and only touches it there afterwards.
+ */
+public class SearchIndex {
+
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensByItem = new HashMap<>();
+    private final Map<String, ClothingItem> itemsById = new HashMap<>();
+
+    /** Adds an item, or re-indexes it if an item with the same ID is already present. */
+    public void put(ClothingItem item) {
+        if (item == null || item.getId() == null) return;
+        remove(item.getId());
+
+        Set<String> tokens = new HashSet<>(words(item.getSearchKey()));
+
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashSet<>()).add(item.getId());
+        }
+        tokensByItem.put(item.getId(), tokens);
+        itemsById.put(item.getId(), item);
+    }
+
+    public void putAll(Iterable<ClothingItem> items) {
+        for (ClothingItem item : items) put(item);
+    }
+
+    public void remove(String itemId) {
+        Set<String> tokens = tokensByItem.remove(itemId);
+        itemsById.remove(itemId);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Set<String> ids = postings.get(token);
+            if (ids == null) continue;
+            ids.remove(itemId);
+            if (ids.isEmpty()) postings.remove(token);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        tokensByItem.clear();
+        itemsById.clear();
+    }
+
+    /** The indexed copy of an item, or null if it isn't indexed. */
+    public ClothingItem get(String itemId) {
+        return itemsById.get(itemId);
+    }
+
+    public int size() {
+        return itemsById.size();
+    }
+
+    /**
+     * Items matching every word of the query, ordered by ID. A query without any
+     * words ("", "!!") matches nothing, as in the remote search.
+     */
+    public List<ClothingItem> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return Collections.emptyList();
+
+        Set<String> matches = null;
+        for (String word : words) {
+            Set<String> ids = idsWithPrefix(word);
+            if (matches == null) {
+                matches = ids;
+            } else {
+                matches.retainAll(ids);
+            }
+            if (matches.isEmpty()) return Collections.emptyList();
+        }
+
+        List<String> ids = new ArrayList<>(matches);
+        Collections.sort(ids);
+        List<ClothingItem> results = new ArrayList<>(ids.size());
+        for (String id : ids) results.add(itemsById.get(id));
+        return results;
+    }
+
+    private Set<String> idsWithPrefix(String prefix) {
+        Set<String> ids = new HashSet<>();
+        // Every token starting with the prefix sorts between it and prefix + '￿'.
+        SortedMap<String, Set<String>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Set<String> postingIds : range.values()) ids.addAll(postingIds);
+        return ids;
+    }
+
+    /** Runs of letters and digits of the text in SearchText form. */
+    static List<String> tokenize(String text) {
+        return words(SearchText.normalize(text));
+    }
+
+    /** Runs of letters and digits of text already in SearchText form. */
+    static List<String> words(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A search bar query compiled once per keystroke into what matching needs: its words
+ * in SearchText form, longest first so the most selective word rejects an item soonest.
+ * An item matches when its search key (see ClothingItem#getSearchKey) contains every
+ * word, in any order and in any of Name, Fabric, Fit, Care and Category, so
+ * "slim cotton" finds a slim-fit cotton shirt. Matching allocates nothing.
+ *
+ * Immutable; safe to share between threads.
+ */
+public final class SearchQuery {
+
+    private static final SearchQuery EMPTY = new SearchQuery("", new String[0]);
+
+    private final String normalized;
+    private final String[] words;
+
+    private SearchQuery(String normalized, String[] words) {
+        this.normalized = normalized;
+        this.words = words;
+    }
+
+    public static SearchQuery compile(String query) {
+        String normalized = SearchText.normalize(query);
+        if (normalized.isEmpty()) return EMPTY;
+
+        String[] split = normalized.split(" ");
+        Arrays.sort(split, (a, b) -> Integer.compare(b.length(), a.length()));
+        // A word inside a longer one ("co" in "cotton") can't reject anything the longer one accepts.
+        List<String> words = new ArrayList<>(split.length);
+        for (String word : split) {
+            if (!containedInAny(word, words)) words.add(word);
+        }
+        return new SearchQuery(normalized, words.toArray(new String[0]));
+    }
+
+    /** The query in SearchText form; equal for queries that match the same items. */
+    public String normalized() {
+        return normalized;
+    }
+
+    /** True for a blank query, which matches everything. */
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public boolean matches(ClothingItem item) {
+        return matchesKey(item.getSearchKey());
+    }
+
+    /** As {@link #matches}, given the item's search key. */
+    public boolean matchesKey(String searchKey) {
+        for (String word : words) {
+            if (!searchKey.contains(word)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether everything this query matches is also matched by {@code earlier}, as
+     * when typing on ("cot" after "co", "slim c" after "slim"): each earlier word lies
+     * within one of ours. The earlier result can then be filtered instead of the list.
+     */
+    public boolean narrows(SearchQuery earlier) {
+        for (String word : earlier.words) {
+            if (!containedInAny(word, Arrays.asList(words))) return false;
+        }
+        return true;
+    }
+
+    private static boolean containedInAny(String word, List<String> words) {
+        for (String other : words) {
+            if (other.contains(word)) return true;
+        }
+        return false;
+    }
+}
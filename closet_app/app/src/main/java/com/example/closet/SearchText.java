@@ -0,0 +1,50 @@
+package com.example.closet;
+
+import java.text.Normalizer;
+
+/**
+ * Normal form used for matching search queries against items: lowercase, accents
+ * folded ("Crème" becomes "creme"), runs of whitespace collapsed to one space and
+ * trimmed. Items carry their fields in this form as ClothingItem.getSearchKey(), built
+ * once when the item is loaded, so a keystroke only normalizes the query and then
+ * matches with String.contains, which allocates nothing.
+ */
+public final class SearchText {
+
+    /** Separates fields in a search key; normalized text never contains it. */
+    static final char FIELD_SEPARATOR = '\n';
+
+    private SearchText() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(Character.toLowerCase(c));
+        }
+        return out.toString();
+    }
+
+    /** The normalized fields joined by FIELD_SEPARATOR, so a query can't match across two of them. */
+    public static String key(String... fields) {
+        StringBuilder key = new StringBuilder();
+        for (String field : fields) {
+            if (key.length() > 0) key.append(FIELD_SEPARATOR);
+            key.append(normalize(field));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The "searchTokens" array that SearchTokensIndexer writes to each "Clothes" document,
+ * so global search can ask Firestore for matching items with one whereArrayContains
+ * instead of downloading the catalog to search it. It holds every word of Name, Fabric,
+ * Fit, Care and Category in SearchText form as prefixes of MIN_PREFIX to MAX_TOKEN
+ * chars, so a half-typed word matches as well as a whole one.
+ */
+public final class SearchTokens {
+
+    public static final String FIELD = "searchTokens";
+
+    static final int MIN_PREFIX = 2;
+    /** Longer words are only indexed, and queried, by their first MAX_TOKEN chars. */
+    static final int MAX_TOKEN = 15;
+
+    private SearchTokens() {
+    }
+
+    /** Sorted, distinct tokens for the given field values. */
+    public static List<String> of(String... fields) {
+        TreeSet<String> tokens = new TreeSet<>();
+        for (String word : SearchIndex.words(SearchText.key(fields))) {
+            if (word.length() < MIN_PREFIX) {
+                tokens.add(word);
+                continue;
+            }
+            int longest = Math.min(word.length(), MAX_TOKEN);
+            for (int end = MIN_PREFIX; end <= longest; end++) {
+                tokens.add(word.substring(0, end));
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * The one token to query for: the query's longest word, as the most selective, cut
+     * to MAX_TOKEN chars. Null when no word has MIN_PREFIX chars, since a single
+     * letter would match too much of the catalog to be worth a query.
+     */
+    public static String queryToken(String query) {
+        String longest = null;
+        for (String word : SearchIndex.tokenize(query)) {
+            if (longest == null || word.length() > longest.length()) longest = word;
+        }
+        if (longest == null || longest.length() < MIN_PREFIX) return null;
+        return longest.length() > MAX_TOKEN ? longest.substring(0, MAX_TOKEN) : longest;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintenance job that keeps the SearchTokens array on every "Clothes" document in
+ * step with its text fields. Item edits don't bump updatedAt on "Clothes", so there is
+ * no cheap way to find the changed ones; like SummaryIndexer, it walks the whole
+ * collection PAGE_SIZE documents at a time with a document-ID cursor and compares
+ * each item's tokens with the stored ones. Tokens are only written when they changed,
+ * and without touching updatedAt, since they are derived data. Run it from
+ * CatalogJobsActivity after adding or editing items.
+ */
+public class SearchTokensIndexer {
+
+    private static final String TAG = "SearchTokensIndexer";
+
+    private static final int PAGE_SIZE = 200;
+    /** Most writes one WriteBatch accepts. */
+    private static final int BATCH_LIMIT = 500;
+
+    private final FirebaseFirestore db;
+    private int written = 0;
+
+    public SearchTokensIndexer(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Indexes every item; the task resolves to the number of documents whose tokens
+     * were written.
+     */
+    public Task<Integer> run() {
+        written = 0;
+        return indexPage(null).onSuccessTask(done -> {
+            Log.d(TAG, "Wrote tokens for " + written + " items");
+            return Tasks.forResult(written);
+        });
+    }
+
+    private Task<Void> indexPage(DocumentSnapshot after) {
+        Query page = db.collection(ClothingRepository.COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) page = page.startAfter(after);
+        return page.get().onSuccessTask(snapshot -> {
+            List<DocumentSnapshot> items = snapshot.getDocuments();
+            return write(items).onSuccessTask(done -> items.size() < PAGE_SIZE
+                    ? Tasks.forResult(null)
+                    : indexPage(items.get(items.size() - 1)));
+        });
+    }
+
+    /** Writes tokens for the items whose stored tokens are stale, BATCH_LIMIT per commit. */
+    private Task<Void> write(List<DocumentSnapshot> items) {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int inBatch = 0;
+        for (DocumentSnapshot item : items) {
+            List<String> tokens = SearchTokens.of(item.getString("Name"), item.getString("Fabric"),
+                    item.getString("Fit"), item.getString("Care"), item.getString("Category"));
+            if (tokens.equals(item.get(SearchTokens.FIELD))) continue;
+
+            batch.update(item.getReference(), SearchTokens.FIELD, tokens);
+            written++;
+            if (++inBatch == BATCH_LIMIT) {
+                commits.add(batch.commit());
+                batch = db.batch();
+                inBatch = 0;
+            }
+        }
+        if (inBatch > 0) commits.add(batch.commit());
+        return Tasks.whenAll(commits);
+    }
+}
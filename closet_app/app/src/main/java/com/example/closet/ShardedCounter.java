@@ -0,0 +1,121 @@
+package com.example.closet;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Distributed counter for a numeric field on a "Clothes" document (Views, Likes).
+ * Increments land on one of NUM_SHARDS documents in a per-field subcollection, chosen
+ * at random, so a popular item never sees more than a fraction of the write rate on
+ * any single document. {@link #rollUp} sums the shards and writes the total back to
+ * the parent field, which is what the orderBy("Views") / orderBy("Likes") queries sort on.
+ *
+ * Layout: Clothes/{id}/{field}Shards/{0..NUM_SHARDS-1} with a "count" field, plus a
+ * "base" shard holding the parent value from before the counter was sharded.
+ */
+public final class ShardedCounter {
+
+    public static final String VIEWS = "Views";
+    public static final String LIKES = "Likes";
+
+    private static final int NUM_SHARDS = 10;
+    private static final String COUNT = "count";
+    private static final String BASE_SHARD = "base";
+
+    private static final Random random = new Random();
+
+    private ShardedCounter() {
+    }
+
+    public static CollectionReference shards(DocumentReference item, String field) {
+        return item.collection(field + "Shards");
+    }
+
+    /** Adds {@code by} to a random shard as part of the given batch. */
+    public static void increment(WriteBatch batch, DocumentReference item, String field, long by) {
+        batch.set(randomShard(item, field),
+                Collections.singletonMap(COUNT, FieldValue.increment(by)),
+                SetOptions.merge());
+    }
+
+    /** Adds {@code by} to a random shard as part of the given transaction. */
+    public static void increment(Transaction transaction, DocumentReference item, String field, long by) {
+        transaction.set(randomShard(item, field),
+                Collections.singletonMap(COUNT, FieldValue.increment(by)),
+                SetOptions.merge());
+    }
+
+    /**
+     * Sets the parent field, and the same field on the item's CatalogSummary, to the
+     * sum of its shards. The first roll-up of a field moves the parent's existing value
+     * into the base shard so that counts recorded before sharding aren't lost; a
+     * "{field}Sharded" flag marks that this happened. A missing summary is left for
+     * SummaryIndexer to write in full. Resolves to the total, or to null if the item
+     * no longer exists, in which case nothing is written.
+     */
+    public static Task<Long> rollUp(FirebaseFirestore db, DocumentReference item, String field) {
+        String shardedFlag = field + "Sharded";
+        return db.runTransaction(transaction -> {
+            // Firestore transactions need every read before the first write.
+            DocumentSnapshot parent = transaction.get(item);
+            DocumentSnapshot summary = transaction.get(CatalogSummary.summary(db, item.getId()));
+            DocumentSnapshot base = transaction.get(shards(item, field).document(BASE_SHARD));
+            long sum = 0;
+            for (int i = 0; i < NUM_SHARDS; i++) {
+                sum += countOf(transaction.get(shards(item, field).document(String.valueOf(i))));
+            }
+            if (!parent.exists()) return null;
+
+            long baseCount;
+            if (Boolean.TRUE.equals(parent.getBoolean(shardedFlag))) {
+                baseCount = countOf(base);
+            } else {
+                Long legacy = parent.getLong(field);
+                baseCount = legacy != null ? legacy : 0L;
+                transaction.set(shards(item, field).document(BASE_SHARD),
+                        Collections.singletonMap(COUNT, baseCount));
+                transaction.update(item, shardedFlag, true);
+            }
+
+            long total = baseCount + sum;
+            transaction.update(item, field, total);
+            if (summary.exists()) {
+                transaction.update(summary.getReference(), CatalogSummary.counterUpdate(field, total));
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Sets the counter to {@code count} as part of the given batch: the whole count in
+     * the base shard, zero in the others, and the parent field to match. The caller
+     * updates the summary.
+     */
+    public static void reset(WriteBatch batch, DocumentReference item, String field, long count) {
+        batch.set(shards(item, field).document(BASE_SHARD), Collections.singletonMap(COUNT, count));
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            batch.set(shards(item, field).document(String.valueOf(i)),
+                    Collections.singletonMap(COUNT, 0L));
+        }
+        batch.update(item, field, count, field + "Sharded", true);
+    }
+
+    private static DocumentReference randomShard(DocumentReference item, String field) {
+        return shards(item, field).document(String.valueOf(random.nextInt(NUM_SHARDS)));
+    }
+
+    private static long countOf(DocumentSnapshot shard) {
+        Long count = shard.exists() ? shard.getLong(COUNT) : null;
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Autocomplete dropdown for a search bar, filled from SuggestionStore. The widget runs
+ * the filter on its own worker thread, so the trie lookup never blocks typing.
+ */
+public class SuggestionAdapter extends ArrayAdapter<String> {
+
+    private static final int MAX_SUGGESTIONS = 6;
+
+    /** Called with the picked suggestion, after it has been put in the search bar. */
+    public interface OnSuggestionPickedListener {
+        void onSuggestionPicked(String suggestion);
+    }
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            if (constraint != null) {
+                List<String> suggestions = SuggestionStore.getInstance()
+                        .suggest(constraint.toString(), MAX_SUGGESTIONS);
+                results.values = suggestions;
+                results.count = suggestions.size();
+            }
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            setNotifyOnChange(false);
+            clear();
+            if (results.values != null) addAll((List<String>) results.values);
+            notifyDataSetChanged();
+        }
+    };
+
+    public SuggestionAdapter(Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    /** Gives the search bar a suggestion dropdown. */
+    public static void attach(AutoCompleteTextView searchBar, OnSuggestionPickedListener listener) {
+        SuggestionAdapter adapter = new SuggestionAdapter(searchBar.getContext());
+        searchBar.setAdapter(adapter);
+        searchBar.setOnItemClickListener((parent, view, position, id) -> {
+            String suggestion = adapter.getItem(position);
+            if (suggestion == null) return;
+            SuggestionStore.getInstance().recordQuery(suggestion);
+            listener.onSuggestionPicked(suggestion);
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the SuggestionTrie behind the search bars' autocomplete and keeps it on disk,
+ * so suggestions work as soon as the app starts instead of after the catalog is
+ * loaded and scanned. ClothingRepository hands over the catalog whenever it changes
+ * and the screens record the queries the user runs; each change builds a new trie on
+ * a worker thread, swaps it in and saves it.
+ *
+ * suggest() can be called from any thread; the rest from the main thread.
+ */
+public class SuggestionStore {
+
+    private static final String TAG = "SuggestionStore";
+
+    private static final String FILE_NAME = "search_suggestions.bin";
+
+    private static SuggestionStore instance;
+
+    /** Builds and file I/O, one at a time so each change starts from the last one. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    private volatile SuggestionTrie trie = SuggestionTrie.empty();
+    private AtomicFile file;
+
+    private SuggestionStore() {
+    }
+
+    public static synchronized SuggestionStore getInstance() {
+        if (instance == null) {
+            instance = new SuggestionStore();
+        }
+        return instance;
+    }
+
+    /** Called once from ClosetApplication; loads the saved trie in the background. */
+    public void init(Context context) {
+        if (file != null) return;
+        file = new AtomicFile(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        worker.execute(this::load);
+    }
+
+    /** Up to {@code limit} completions for what has been typed so far, best first. */
+    public List<String> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, limit);
+    }
+
+    /** Remembers a query the user ran so it is suggested first next time. */
+    public void recordQuery(String query) {
+        if (file == null || query == null || query.trim().isEmpty()) return;
+        worker.execute(() -> publish(trie.toBuilder().addRecentQuery(query).build()));
+    }
+
+    /** Rebuilds the catalog terms from the given items, keeping the recent queries. */
+    public void updateCatalog(Collection<ClothingItem> items) {
+        if (file == null) return;
+        List<ClothingItem> snapshot = new ArrayList<>(items);
+        worker.execute(() -> publish(trie.recentQueriesBuilder().addItems(snapshot).build()));
+    }
+
+    /**
+     * Like {@link #updateCatalog}, but only if the trie has no catalog terms yet: the
+     * catalog loaded from disk at startup is what the saved trie was built from.
+     */
+    public void seedCatalog(Collection<ClothingItem> items) {
+        if (file == null) return;
+        List<ClothingItem> snapshot = new ArrayList<>(items);
+        worker.execute(() -> {
+            if (trie.hasCatalogTerms()) return;
+            publish(trie.recentQueriesBuilder().addItems(snapshot).build());
+        });
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            trie = SuggestionTrie.readFrom(in);
+            Log.d(TAG, "Loaded " + trie.size() + " suggestions");
+        } catch (FileNotFoundException e) {
+            Log.d(TAG, "No saved suggestions yet");
+        } catch (IOException e) {
+            Log.e(TAG, "Discarding unreadable suggestions", e);
+            file.delete();
+        }
+    }
+
+    private void publish(SuggestionTrie built) {
+        trie = built;
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            built.writeTo(out);
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to save suggestions", e);
+            if (stream != null) file.failWrite(stream);
+        }
+    }
+}
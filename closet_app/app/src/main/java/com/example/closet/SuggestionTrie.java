@@ -0,0 +1,365 @@
+package com.example.closet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Prefix trie of search suggestions: catalog terms (item names and the words of their
+ * search keys) weighted by how viewed and liked their items are, plus the user's
+ * recent queries, which always rank above catalog terms, newest first. Terms are
+ * keyed by their SearchText form, so "Crème" completes "cre". Only the heaviest
+ * MAX_CATALOG_TERMS catalog terms are kept, so the trie stays small.
+ *
+ * The nodes are flattened into parallel arrays, with each node's children stored next
+ * to each other and sorted by char, and every node records the best score below it.
+ * A lookup walks the prefix with a binary search per char and then expands the best
+ * nodes first, so it touches little more than the suggestions it returns. The arrays
+ * are written and read as they are, so loading a saved trie needs no rebuild.
+ *
+ * Immutable; safe to share between threads. Use a Builder to make a new one.
+ */
+public final class SuggestionTrie {
+
+    /** Recent queries kept; older ones drop out on the next build. */
+    static final int MAX_RECENT = 20;
+    /**
+     * Catalog terms kept, heaviest first. Item names are mostly unique, so a large
+     * catalog would otherwise grow the trie (and its file) with every item.
+     */
+    static final int MAX_CATALOG_TERMS = 5000;
+
+    private static final int FORMAT_VERSION = 1;
+    /** Scores at or above this are recent queries; catalog weights are capped below it. */
+    private static final int RECENT_BASE = 1 << 30;
+
+    private static final SuggestionTrie EMPTY = new Builder().build();
+
+    private final String[] terms;
+    private final int[] weights;
+    /** Query sequence number of each recent query, 0 for catalog-only terms. */
+    private final int[] recency;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    /** Term ending at each node, or -1. */
+    private final int[] nodeTerm;
+    /** Best score of any term at or below each node. */
+    private final int[] best;
+
+    private SuggestionTrie(String[] terms, int[] weights, int[] recency, char[] labels,
+                           int[] firstChild, int[] childCount, int[] nodeTerm, int[] best) {
+        this.terms = terms;
+        this.weights = weights;
+        this.recency = recency;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.nodeTerm = nodeTerm;
+        this.best = best;
+    }
+
+    public static SuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /** Whether any term came from the catalog rather than only from recent queries. */
+    public boolean hasCatalogTerms() {
+        for (int weight : weights) {
+            if (weight > 0) return true;
+        }
+        return false;
+    }
+
+    /** Up to {@code limit} suggestions starting with the prefix, best first. */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> results = new ArrayList<>(limit);
+        String key = SearchText.normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return results;
+
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) return results;
+
+        // Entries are nodes (>= 0) or terms (-1 - term), ordered by score.
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        queue.add(new long[]{best[node], node});
+        while (!queue.isEmpty() && results.size() < limit) {
+            long entry = queue.poll()[1];
+            if (entry < 0) {
+                results.add(terms[(int) (-1 - entry)]);
+                continue;
+            }
+            int n = (int) entry;
+            if (nodeTerm[n] >= 0) queue.add(new long[]{score(nodeTerm[n]), -1 - nodeTerm[n]});
+            for (int c = firstChild[n]; c < firstChild[n] + childCount[n]; c++) {
+                queue.add(new long[]{best[c], c});
+            }
+        }
+        return results;
+    }
+
+    /** A builder holding every term of this trie, to add to and build again. */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (int t = 0; t < terms.length; t++) {
+            builder.merge(terms[t], weights[t], recency[t]);
+        }
+        return builder;
+    }
+
+    /** Like {@link #toBuilder()}, but keeps only the recent queries, for a new catalog. */
+    public Builder recentQueriesBuilder() {
+        Builder builder = new Builder();
+        for (int t = 0; t < terms.length; t++) {
+            if (recency[t] > 0) builder.merge(terms[t], 0, recency[t]);
+        }
+        return builder;
+    }
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) low = mid + 1;
+            else if (labels[mid] > label) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private int score(int term) {
+        return recency[term] > 0 ? RECENT_BASE + recency[term] : weights[term];
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(terms.length);
+        for (int t = 0; t < terms.length; t++) {
+            out.writeUTF(terms[t]);
+            out.writeInt(weights[t]);
+            out.writeInt(recency[t]);
+        }
+        out.writeInt(labels.length);
+        for (int n = 0; n < labels.length; n++) {
+            out.writeChar(labels[n]);
+            out.writeInt(firstChild[n]);
+            out.writeInt(childCount[n]);
+            out.writeInt(nodeTerm[n]);
+            out.writeInt(best[n]);
+        }
+    }
+
+    /** Reads a trie written by {@link #writeTo}; an unknown format is an IOException. */
+    public static SuggestionTrie readFrom(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) throw new IOException("Unknown suggestion format " + version);
+        int termCount = in.readInt();
+        String[] terms = new String[termCount];
+        int[] weights = new int[termCount];
+        int[] recency = new int[termCount];
+        for (int t = 0; t < termCount; t++) {
+            terms[t] = in.readUTF();
+            weights[t] = in.readInt();
+            recency[t] = in.readInt();
+        }
+        int nodeCount = in.readInt();
+        char[] labels = new char[nodeCount];
+        int[] firstChild = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+        int[] nodeTerm = new int[nodeCount];
+        int[] best = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            labels[n] = in.readChar();
+            firstChild[n] = in.readInt();
+            childCount[n] = in.readInt();
+            nodeTerm[n] = in.readInt();
+            best[n] = in.readInt();
+        }
+        return new SuggestionTrie(terms, weights, recency, labels, firstChild, childCount, nodeTerm, best);
+    }
+
+    /**
+     * Collects terms for a trie. Terms with the same SearchText form are merged: their
+     * weights add up and the first spelling added is the one suggested.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private final List<Integer> recency = new ArrayList<>();
+        private int lastQuery = 0;
+
+        /** Adds a catalog term, e.g. an item name or one of its words. */
+        public Builder addTerm(String term, int weight) {
+            merge(term, weight, 0);
+            return this;
+        }
+
+        /** Adds every item's name and search key words, weighted by the item's popularity. */
+        public Builder addItems(Iterable<ClothingItem> items) {
+            for (ClothingItem item : items) {
+                if (item == null) continue;
+                int weight = popularity(item);
+                if (item.getName() != null) addTerm(item.getName().trim(), weight);
+                // Search key words are already in SearchText form.
+                for (String word : SearchIndex.words(item.getSearchKey())) merge(word, word, weight, 0);
+            }
+            return this;
+        }
+
+        /** Records a query the user ran; it becomes the newest recent query. */
+        public Builder addRecentQuery(String query) {
+            merge(query.trim(), 0, lastQuery + 1);
+            return this;
+        }
+
+        void merge(String term, int weight, int sequence) {
+            merge(term, SearchText.normalize(term), weight, sequence);
+        }
+
+        private void merge(String term, String key, int weight, int sequence) {
+            if (key.isEmpty()) return;
+            lastQuery = Math.max(lastQuery, sequence);
+            Integer id = termIds.get(key);
+            if (id == null) {
+                termIds.put(key, terms.size());
+                terms.add(term);
+                keys.add(key);
+                weights.add(Math.min(weight, RECENT_BASE - 1));
+                recency.add(sequence);
+                return;
+            }
+            weights.set(id, (int) Math.min((long) weights.get(id) + weight, RECENT_BASE - 1));
+            if (sequence > recency.get(id)) {
+                recency.set(id, sequence);
+                // A query is suggested the way the user last typed it.
+                terms.set(id, term);
+            }
+        }
+
+        public SuggestionTrie build() {
+            int[] sequences = new int[terms.size()];
+            for (int t = 0; t < sequences.length; t++) sequences[t] = recency.get(t);
+            renumberRecentQueries(sequences);
+
+            // Recent queries, and the MAX_CATALOG_TERMS heaviest catalog terms, in the order added.
+            List<Integer> catalog = new ArrayList<>();
+            for (int t = 0; t < sequences.length; t++) {
+                if (sequences[t] == 0 && weights.get(t) > 0) catalog.add(t);
+            }
+            catalog.sort((a, b) -> Integer.compare(weights.get(b), weights.get(a)));
+            boolean[] keep = new boolean[sequences.length];
+            for (int i = 0; i < Math.min(catalog.size(), MAX_CATALOG_TERMS); i++) keep[catalog.get(i)] = true;
+            List<Integer> kept = new ArrayList<>();
+            for (int t = 0; t < sequences.length; t++) {
+                if (keep[t] || sequences[t] > 0) kept.add(t);
+            }
+            int count = kept.size();
+            String[] termTexts = new String[count];
+            int[] termWeights = new int[count];
+            int[] termRecency = new int[count];
+            Node root = new Node();
+            for (int t = 0; t < count; t++) {
+                int from = kept.get(t);
+                termTexts[t] = terms.get(from);
+                termWeights[t] = weights.get(from);
+                termRecency[t] = sequences[from];
+                Node node = root;
+                String key = keys.get(from);
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                }
+                node.term = t;
+            }
+
+            // Breadth first, so each node's children get consecutive slots.
+            List<Node> order = new ArrayList<>();
+            List<Character> orderLabels = new ArrayList<>();
+            order.add(root);
+            orderLabels.add('\0');
+            int[] firstChild = new int[16];
+            int[] childCount = new int[16];
+            for (int n = 0; n < order.size(); n++) {
+                Node node = order.get(n);
+                if (n == firstChild.length) {
+                    firstChild = Arrays.copyOf(firstChild, n * 2);
+                    childCount = Arrays.copyOf(childCount, n * 2);
+                }
+                firstChild[n] = order.size();
+                childCount[n] = node.children.size();
+                for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                    order.add(child.getValue());
+                    orderLabels.add(child.getKey());
+                }
+            }
+
+            int nodeCount = order.size();
+            char[] labels = new char[nodeCount];
+            int[] nodeTerm = new int[nodeCount];
+            int[] best = new int[nodeCount];
+            for (int n = 0; n < nodeCount; n++) {
+                labels[n] = orderLabels.get(n);
+                nodeTerm[n] = order.get(n).term;
+            }
+            // Children come after their parent, so one backward pass fills in the best scores.
+            for (int n = nodeCount - 1; n >= 0; n--) {
+                int score = -1;
+                if (nodeTerm[n] >= 0) {
+                    int t = nodeTerm[n];
+                    score = termRecency[t] > 0 ? RECENT_BASE + termRecency[t] : termWeights[t];
+                }
+                for (int c = firstChild[n]; c < firstChild[n] + childCount[n]; c++) {
+                    score = Math.max(score, best[c]);
+                }
+                best[n] = score;
+            }
+            return new SuggestionTrie(termTexts, termWeights, termRecency, labels,
+                    Arrays.copyOf(firstChild, nodeCount), Arrays.copyOf(childCount, nodeCount),
+                    nodeTerm, best);
+        }
+
+        /**
+         * Keeps the MAX_RECENT newest queries, renumbered 1 (oldest) upwards so the
+         * numbers stay small however many queries are recorded, and clears the rest.
+         */
+        private static void renumberRecentQueries(int[] sequences) {
+            List<Integer> recent = new ArrayList<>();
+            for (int t = 0; t < sequences.length; t++) {
+                if (sequences[t] > 0) recent.add(t);
+            }
+            recent.sort((a, b) -> Integer.compare(sequences[a], sequences[b]));
+            int dropped = Math.max(0, recent.size() - MAX_RECENT);
+            for (int i = 0; i < recent.size(); i++) {
+                sequences[recent.get(i)] = i < dropped ? 0 : i - dropped + 1;
+            }
+        }
+
+        /** Same blend of views and likes as FuzzySearchIndex, kept linear so terms can sum it. */
+        private static int popularity(ClothingItem item) {
+            return 1 + Math.max(0, item.getViews()) + 3 * Math.max(0, item.getLikes());
+        }
+    }
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        int term = -1;
+    }
+}
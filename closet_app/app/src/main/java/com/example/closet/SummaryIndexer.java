@@ -0,0 +1,128 @@
+package com.example.closet;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintenance job that brings "ClothesSummary" in line with "Clothes" after catalog
+ * edits. It walks both collections PAGE_SIZE documents at a time with a document-ID
+ * cursor: the first pass writes a CatalogSummary for every item whose summary is
+ * missing or differs, the second deletes summaries whose item is gone. Unchanged
+ * summaries aren't touched, so their updatedAt stays put and devices don't download
+ * them again. Run it from CatalogJobsActivity after adding or editing items.
+ */
+public class SummaryIndexer {
+
+    private static final String TAG = "SummaryIndexer";
+
+    /** Also the most IDs one whereIn() accepts. */
+    private static final int PAGE_SIZE = 30;
+
+    private final FirebaseFirestore db;
+    private int written = 0;
+    private int deleted = 0;
+
+    public SummaryIndexer(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Runs both passes; the task resolves to the number of summaries written or deleted. */
+    public Task<Integer> run() {
+        written = 0;
+        deleted = 0;
+        return indexPage(null)
+                .onSuccessTask(done -> prunePage(null))
+                .onSuccessTask(done -> {
+                    Log.d(TAG, "Wrote " + written + " summaries, deleted " + deleted);
+                    return Tasks.forResult(written + deleted);
+                });
+    }
+
+    private Task<Void> indexPage(DocumentSnapshot after) {
+        List<DocumentSnapshot> items = new ArrayList<>();
+        return page(ClothingRepository.COLLECTION, after).onSuccessTask(snapshot -> {
+            items.addAll(snapshot.getDocuments());
+            return lookUp(CatalogSummary.COLLECTION, items);
+        }).onSuccessTask(summaries -> {
+            WriteBatch batch = db.batch();
+            int changes = 0;
+            for (DocumentSnapshot item : items) {
+                Map<String, Object> fields = CatalogSummary.fieldsOf(item);
+                DocumentSnapshot summary = summaries.get(item.getId());
+                if (summary != null && fields.equals(withoutUpdatedAt(summary))) continue;
+
+                fields.put("updatedAt", FieldValue.serverTimestamp());
+                batch.set(CatalogSummary.summary(db, item.getId()), fields);
+                changes++;
+            }
+            written += changes;
+            return changes > 0 ? batch.commit() : Tasks.<Void>forResult(null);
+        }).onSuccessTask(done -> items.size() < PAGE_SIZE
+                ? Tasks.forResult(null)
+                : indexPage(items.get(items.size() - 1)));
+    }
+
+    private Task<Void> prunePage(DocumentSnapshot after) {
+        List<DocumentSnapshot> summaries = new ArrayList<>();
+        return page(CatalogSummary.COLLECTION, after).onSuccessTask(snapshot -> {
+            summaries.addAll(snapshot.getDocuments());
+            return lookUp(ClothingRepository.COLLECTION, summaries);
+        }).onSuccessTask(items -> {
+            WriteBatch batch = db.batch();
+            int orphans = 0;
+            for (DocumentSnapshot summary : summaries) {
+                if (items.containsKey(summary.getId())) continue;
+                batch.delete(summary.getReference());
+                orphans++;
+            }
+            deleted += orphans;
+            return orphans > 0 ? batch.commit() : Tasks.<Void>forResult(null);
+        }).onSuccessTask(done -> summaries.size() < PAGE_SIZE
+                ? Tasks.forResult(null)
+                : prunePage(summaries.get(summaries.size() - 1)));
+    }
+
+    private Task<QuerySnapshot> page(String collection, DocumentSnapshot after) {
+        Query page = db.collection(collection)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) page = page.startAfter(after);
+        return page.get();
+    }
+
+    /** Reads the documents of {@code collection} with the same IDs as {@code docs}, keyed by ID. */
+    private Task<Map<String, DocumentSnapshot>> lookUp(String collection, List<DocumentSnapshot> docs) {
+        if (docs.isEmpty()) return Tasks.forResult(new HashMap<>());
+        List<String> ids = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) ids.add(doc.getId());
+        return db.collection(collection)
+                .whereIn(FieldPath.documentId(), ids)
+                .get()
+                .onSuccessTask(snapshot -> {
+                    Map<String, DocumentSnapshot> byId = new HashMap<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) byId.put(doc.getId(), doc);
+                    return Tasks.forResult(byId);
+                });
+    }
+
+    private static Map<String, Object> withoutUpdatedAt(DocumentSnapshot summary) {
+        Map<String, Object> data = summary.getData() != null
+                ? new HashMap<>(summary.getData()) : new HashMap<>();
+        data.remove("updatedAt");
+        return data;
+    }
+}
@@ -20,7 +20,6 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,7 +35,10 @@ public class TopPicksActivity extends AppCompatActivity
     private final List<ClothingItem> topPicksList = new ArrayList<>();
     private final List<ClothingItem> filteredList = new ArrayList<>();
 
-    private FirebaseFirestore firestore;
+    private final LikeQueue.Listener likeListener = (itemId, liked) -> adapter.refreshItem(itemId);
+    private final SearchDebouncer search = new SearchDebouncer(
+            SearchDebouncer.filtering(() -> topPicksList), this::showResults);
+
     private FirebaseAuth firebaseAuth;
     private String currentUserId;
 
@@ -50,7 +52,6 @@ public class TopPicksActivity extends AppCompatActivity
         setContentView(R.layout.activity_top_picks);
         ImageButton back = findViewById(R.id.btn_back);
         back.setOnClickListener(v -> finish());
-        firestore = FirebaseFirestore.getInstance();
         firebaseAuth = FirebaseAuth.getInstance();
         if (firebaseAuth.getCurrentUser() != null) {
             currentUserId = firebaseAuth.getCurrentUser().getUid();
@@ -97,7 +98,7 @@ public class TopPicksActivity extends AppCompatActivity
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterTopPicks(s.toString());
+                search.submit(s.toString());
             }
         });
 
@@ -118,10 +119,8 @@ public class TopPicksActivity extends AppCompatActivity
                 topPicksList.clear();
                 topPicksList.addAll(items);
 
-                filteredList.clear();
-                filteredList.addAll(items);
-
-                adapter.updateItems(filteredList);
+                // Through the search, so a query typed while loading still applies.
+                search.submitNow(searchBar.getText().toString());
                 Log.d(TAG, "Loaded top picks successfully");
             }
 
@@ -133,31 +132,10 @@ public class TopPicksActivity extends AppCompatActivity
         });
     }
 
-    private void filterTopPicks(String query) {
+    private void showResults(List<ClothingItem> items) {
         filteredList.clear();
-        String lower = query.toLowerCase().trim();
-
-        for (ClothingItem item : topPicksList) {
-            boolean matches = false;
-
-            if (item.getName() != null && item.getName().toLowerCase().contains(lower)) {
-                matches = true;
-            } else if (item.getCategory() != null && item.getCategory().toLowerCase().contains(lower)) {
-                matches = true;
-            } else if (item.getFabric() != null && item.getFabric().toLowerCase().contains(lower)) {
-                matches = true;
-            } else if (item.getFit() != null && item.getFit().toLowerCase().contains(lower)) {
-                matches = true;
-            } else if (item.getCare() != null && item.getCare().toLowerCase().contains(lower)) {
-                matches = true;
-            }
-
-            if (matches) {
-                filteredList.add(item);
-            }
-        }
-
-        adapter.updateItems(filteredList);
+        filteredList.addAll(items);
+        adapter.submitItems(filteredList);
 
         findViewById(R.id.text_empty_state).setVisibility(
                 filteredList.isEmpty() ? View.VISIBLE : View.GONE
@@ -175,21 +153,25 @@ public class TopPicksActivity extends AppCompatActivity
     @Override
     public void onItemLike(ClothingItem item, int position, boolean isLiked) {
         if (currentUserId == null || item.getId() == null) return;
+        // Queued and debounced; the row is refreshed through likeListener.
+        LikeQueue.getInstance().setLiked(currentUserId, item.getId(), isLiked);
+    }
 
-        firestore.collection("Clothes")
-                .document(item.getId())
-                .update("likedUsers", isLiked
-                        ? com.google.firebase.firestore.FieldValue.arrayUnion(currentUserId)
-                        : com.google.firebase.firestore.FieldValue.arrayRemove(currentUserId))
-                .addOnSuccessListener(aVoid -> {
-                    item.setLikedByCurrentUser(isLiked);
-                    adapter.notifyItemChanged(position);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to update like", e);
-                    item.setLikedByCurrentUser(!isLiked);
-                    adapter.notifyItemChanged(position);
-                    Toast.makeText(this, "Failed to update like", Toast.LENGTH_SHORT).show();
-                });
+    @Override
+    protected void onStart() {
+        super.onStart();
+        LikeQueue.getInstance().addListener(likeListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        LikeQueue.getInstance().removeListener(likeListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        search.cancel();
     }
 }
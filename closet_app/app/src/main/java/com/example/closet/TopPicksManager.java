@@ -2,59 +2,80 @@ package com.example.closet;
 
 import android.util.Log;
 
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
-
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Loads the home screen's Top Picks (most liked items) with stale-while-revalidate
+ * caching: the last result is handed to the callback straight away, and once it is
+ * older than CACHE_TTL_MS a refresh runs in the background. The callback only fires
+ * a second time if the refresh changed the ranking.
+ */
 public class TopPicksManager {
 
+    private static final String TAG = "TopPicksManager";
+
+    private static final int TOP_PICKS_LIMIT = 3;
+    private static final long CACHE_TTL_MS = 2 * 60 * 1000L;
+
     public interface TopPicksCallback {
         void onTopPicksLoaded(List<ClothingItem> items);
         void onError(Exception e);
     }
 
+    private static List<ClothingItem> cachedTopPicks = null;
+    private static long cachedAt = 0L;
+    /** Bumped by clear() so a load still running for the previous user isn't cached. */
+    private static int generation = 0;
+
     public static void loadTopPicks(String currentUserId, TopPicksCallback callback) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-
-        db.collection("Clothes")
-                .orderBy("Likes", Query.Direction.DESCENDING) // ✅ Sort by Likes count
-                .limit(3) // or 10 for Most Viewed button later
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    Log.d("TopPicksManager", "Fetched item count: " + querySnapshot.size());
-
-                    List<ClothingItem> topPicks = new ArrayList<>();
-
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        Long likesCount = doc.getLong("Likes"); // Optional: read likes count for debug
-                        Log.d("TopPicksManager", "Doc ID: " + doc.getId() + ", Likes: " + likesCount);
-
-                        ClothingItem item = doc.toObject(ClothingItem.class);
-                        if (item != null) {
-                            item.setId(doc.getId());
-
-                            // Optional: keep likedUsers field in sync if it's still used
-                            List<String> likedUsers = (List<String>) doc.get("likedUsers");
-                            boolean liked = likedUsers != null && currentUserId != null && likedUsers.contains(currentUserId);
-                            item.setLikedByCurrentUser(liked);
-
-                            topPicks.add(item);
-                            Log.d("TopPicksManager", "Added item: " + item.getName());
-                        } else {
-                            Log.e("TopPicksManager", "Item was null after parsing doc: " + doc.getId());
+        if (cachedTopPicks != null) {
+            callback.onTopPicksLoaded(new ArrayList<>(cachedTopPicks));
+            if (System.currentTimeMillis() - cachedAt < CACHE_TTL_MS) {
+                return;
+            }
+            Log.d(TAG, "Top picks are stale, revalidating");
+        }
+
+        boolean hadCache = cachedTopPicks != null;
+        int started = generation;
+        ClothingRepository.getInstance().getTopLiked(TOP_PICKS_LIMIT, currentUserId, hadCache,
+                new ClothingRepository.ItemsCallback() {
+                    @Override
+                    public void onItemsLoaded(List<ClothingItem> items) {
+                        Log.d(TAG, "Loaded item count: " + items.size());
+                        if (started != generation) return;
+                        boolean changed = !sameRanking(cachedTopPicks, items);
+                        cachedTopPicks = new ArrayList<>(items);
+                        cachedAt = System.currentTimeMillis();
+                        if (!hadCache || changed) {
+                            callback.onTopPicksLoaded(new ArrayList<>(items));
                         }
                     }
 
-                    callback.onTopPicksLoaded(topPicks);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("TopPicksManager", "Failed to load top picks", e);
-                    callback.onError(e);
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Failed to load top picks", e);
+                        // A stale list on screen beats an error toast.
+                        if (!hadCache) callback.onError(e);
+                    }
                 });
     }
 
+    /** Drops the cached list, e.g. on logout, since it carries the user's liked state. */
+    public static void clear() {
+        cachedTopPicks = null;
+        cachedAt = 0L;
+        generation++;
+    }
 
+    /** Same items in the same order. */
+    private static boolean sameRanking(List<ClothingItem> a, List<ClothingItem> b) {
+        if (a == null || b == null || a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            String idA = a.get(i).getId();
+            if (idA == null || !idA.equals(b.get(i).getId())) return false;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,138 @@
+package com.example.closet;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write-behind buffer for product page views.
+ * Opening DetailsActivity only bumps a per-item counter in SharedPreferences (so it
+ * survives process death); the summed increments are written in one WriteBatch every
+ * FLUSH_INTERVAL_MS while the app is in the foreground and again when it goes to
+ * the background. Increments go to ShardedCounter shards; CounterRollup later writes
+ * the totals back to the Views field.
+ *
+ * Must be used from the main thread.
+ */
+public class ViewCountBuffer {
+
+    private static final String TAG = "ViewCountBuffer";
+
+    private static final String PREFS_NAME = "pending_views";
+    private static final long FLUSH_INTERVAL_MS = 60 * 1000L;
+    /** Firestore's limit on writes in one batch. */
+    private static final int MAX_BATCH_WRITES = 500;
+
+    private static ViewCountBuffer instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable periodicFlush = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+            mainHandler.postDelayed(this, FLUSH_INTERVAL_MS);
+        }
+    };
+
+    private SharedPreferences prefs;
+    private boolean flushInFlight = false;
+
+    private ViewCountBuffer() {
+    }
+
+    public static synchronized ViewCountBuffer getInstance() {
+        if (instance == null) {
+            instance = new ViewCountBuffer();
+        }
+        return instance;
+    }
+
+    /** Called once from ClosetApplication; also sends anything left by a previous process. */
+    public void init(Context context) {
+        if (prefs != null) return;
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        flush();
+    }
+
+    /** Records one view of the item. */
+    public void record(String itemId) {
+        if (prefs == null || itemId == null) return;
+        prefs.edit().putInt(itemId, prefs.getInt(itemId, 0) + 1).apply();
+    }
+
+    /** Starts the periodic flush; called when the app comes to the foreground. */
+    public void onForeground() {
+        mainHandler.removeCallbacks(periodicFlush);
+        mainHandler.postDelayed(periodicFlush, FLUSH_INTERVAL_MS);
+    }
+
+    /** Stops the periodic flush and sends what is pending; called when the app is backgrounded. */
+    public void onBackground() {
+        mainHandler.removeCallbacks(periodicFlush);
+        flush();
+    }
+
+    /**
+     * Writes every pending increment in batches. Counts are only removed from disk
+     * once their batch has committed, minus anything recorded in the meantime.
+     */
+    public void flush() {
+        if (prefs == null || flushInFlight) return;
+
+        Map<String, Integer> pending = new HashMap<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getValue() instanceof Integer && (Integer) entry.getValue() > 0) {
+                pending.put(entry.getKey(), (Integer) entry.getValue());
+            }
+        }
+        if (pending.isEmpty()) return;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        WriteBatch batch = db.batch();
+        Map<String, Integer> inBatch = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            ShardedCounter.increment(batch,
+                    db.collection(ClothingRepository.COLLECTION).document(entry.getKey()),
+                    ShardedCounter.VIEWS, entry.getValue());
+            inBatch.put(entry.getKey(), entry.getValue());
+            if (inBatch.size() == MAX_BATCH_WRITES) break;
+        }
+
+        flushInFlight = true;
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    flushInFlight = false;
+                    subtract(inBatch);
+                    Log.d(TAG, "Flushed views for " + inBatch.size() + " items");
+                    CounterRollup.getInstance().markDirty(inBatch.keySet(), ShardedCounter.VIEWS);
+                    CounterRollup.getInstance().runIfDue();
+                    // More than one batch worth was pending.
+                    if (pending.size() > inBatch.size()) flush();
+                })
+                .addOnFailureListener(e -> {
+                    flushInFlight = false;
+                    Log.e(TAG, "Failed to flush view counts", e);
+                });
+    }
+
+    private void subtract(Map<String, Integer> flushed) {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, Integer> entry : flushed.entrySet()) {
+            int remaining = prefs.getInt(entry.getKey(), 0) - entry.getValue();
+            if (remaining > 0) {
+                editor.putInt(entry.getKey(), remaining);
+            } else {
+                editor.remove(entry.getKey());
+            }
+        }
+        editor.apply();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.closet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for FacetIndex: building it, filtering by a three-facet selection
+ * (Fabric Cotton or Linen, Fit Slim, Size M) against the linear pass per criterion it
+ * replaces, and the counts for every chip as FacetBar recomputes them after each pick.
+ *
+ * Not a unit test (FacetIndexTest checks the results); run it with
+ * ./gradlew :app:benchmark --args=FacetIndex
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FacetIndexBenchmark {
+
+    @Param({"10000", "50000"})
+    public int size;
+
+    private List<ClothingItem> items;
+    private FacetIndex index;
+    private FacetIndex.Selection selection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = TestCatalog.items(size);
+        index = new FacetIndex(items);
+        selection = selection();
+    }
+
+    @Benchmark
+    public FacetIndex build() {
+        return new FacetIndex(items);
+    }
+
+    @Benchmark
+    public List<ClothingItem> linearFilter() {
+        return linear(items);
+    }
+
+    @Benchmark
+    public List<ClothingItem> indexFilter() {
+        return index.filter(selection);
+    }
+
+    @Benchmark
+    public void chipCounts(Blackhole blackhole) {
+        for (FacetIndex.Facet facet : FacetIndex.Facet.values()) {
+            blackhole.consume(index.counts(facet, selection));
+        }
+    }
+
+    static FacetIndex.Selection selection() {
+        FacetIndex.Selection selection = new FacetIndex.Selection();
+        selection.toggle(FacetIndex.Facet.FABRIC, "Cotton");
+        selection.toggle(FacetIndex.Facet.FABRIC, "Linen");
+        selection.toggle(FacetIndex.Facet.FIT, "Slim");
+        selection.toggle(FacetIndex.Facet.SIZE, "M");
+        return selection;
+    }
+
+    /** One pass per criterion of {@link #selection()}, as each extra filter would have added. */
+    static List<ClothingItem> linear(List<ClothingItem> items) {
+        List<ClothingItem> result = new ArrayList<>();
+        for (ClothingItem item : items) {
+            if ("Cotton".equalsIgnoreCase(item.getFabric()) || "Linen".equalsIgnoreCase(item.getFabric())) {
+                result.add(item);
+            }
+        }
+        List<ClothingItem> fit = new ArrayList<>();
+        for (ClothingItem item : result) {
+            if ("Slim".equalsIgnoreCase(item.getFit())) fit.add(item);
+        }
+        List<ClothingItem> size = new ArrayList<>();
+        for (ClothingItem item : fit) {
+            if (item.getSizes().contains("M")) size.add(item);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks FacetIndex's filtering and counts, also against a linear pass per criterion
+ * on a large list. FacetIndexBenchmark times both.
+ */
+public class FacetIndexTest {
+
+    @Test
+    public void filtersWithOrWithinAndAndAcrossFacets() {
+        List<ClothingItem> items = Arrays.asList(
+                item("a", "Shirts", "Cotton", "Slim", "S", "M"),
+                item("b", "Shirts", "Linen", "Slim", "M"),
+                item("c", "Pants", "cotton", "Regular", "L"),
+                item("d", "Pants", "Denim", "Slim"));
+        FacetIndex index = new FacetIndex(items);
+
+        assertEquals(Arrays.asList("Cotton", "Denim", "Linen"), new ArrayList<>(index.values(FacetIndex.Facet.FABRIC)));
+
+        FacetIndex.Selection selection = new FacetIndex.Selection();
+        assertEquals(items, index.filter(selection));
+        selection.toggle(FacetIndex.Facet.FABRIC, "Cotton");
+        selection.toggle(FacetIndex.Facet.FABRIC, "Linen");
+        assertEquals(Arrays.asList(items.get(0), items.get(1), items.get(2)), index.filter(selection));
+        selection.toggle(FacetIndex.Facet.SIZE, "M");
+        assertEquals(Arrays.asList(items.get(0), items.get(1)), index.filter(selection));
+
+        // Counts leave out the facet's own picks: picking Denim too would add nothing with size M.
+        Map<String, Integer> fabrics = index.counts(FacetIndex.Facet.FABRIC, selection);
+        assertEquals(Integer.valueOf(1), fabrics.get("Cotton"));
+        assertEquals(Integer.valueOf(1), fabrics.get("Linen"));
+        assertEquals(Integer.valueOf(0), fabrics.get("Denim"));
+        Map<String, Integer> sizes = index.counts(FacetIndex.Facet.SIZE, selection);
+        assertEquals(Integer.valueOf(1), sizes.get("S"));
+        assertEquals(Integer.valueOf(2), sizes.get("M"));
+        assertEquals(Integer.valueOf(1), sizes.get("L"));
+
+        selection.toggle(FacetIndex.Facet.SIZE, "M");
+        selection.toggle(FacetIndex.Facet.FABRIC, "Cotton");
+        selection.toggle(FacetIndex.Facet.FABRIC, "Linen");
+        assertTrue(selection.isEmpty());
+    }
+
+    @Test
+    public void isForOnlyTheSameItemsInTheSameOrder() {
+        List<ClothingItem> items = new ArrayList<>(Arrays.asList(
+                item("a", "Shirts", "Cotton", "Slim"), item("b", "Shirts", "Linen", "Slim")));
+        FacetIndex index = new FacetIndex(items);
+        assertTrue(index.isFor(new ArrayList<>(items)));
+
+        Collections.reverse(items);
+        assertFalse(index.isFor(items));
+        Collections.reverse(items);
+        items.set(0, item("a", "Shirts", "Cotton", "Slim"));
+        assertFalse(index.isFor(items));
+    }
+
+    @Test
+    public void combinedFiltersMatchALinearPassPerCriterion() {
+        List<ClothingItem> items = TestCatalog.items(20_000);
+        FacetIndex index = new FacetIndex(items);
+        assertEquals(FacetIndexBenchmark.linear(items), index.filter(FacetIndexBenchmark.selection()));
+    }
+
+    private static ClothingItem item(String id, String category, String fabric, String fit, String... sizes) {
+        return TestCatalog.item(id, "Item " + id, category, fabric, fit, sizes);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.closet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * JMH benchmarks for the list screens' search bar filter (IncrementalFilter with
+ * SearchQuery) at 1k, 10k and 100k items. Each operation types a query one char at
+ * a time, as the debounced search bar would run it:
+ *
+ *   typeQuery    a fresh filter, as right after the list changed
+ *   retypeQuery  a filter that has seen the query before: every keystroke is cached
+ *   legacyScan   the per-screen matching the filter replaced, lowercasing every field
+ *                of every item on every keystroke
+ *
+ * Not a unit test (FilterEngineTest checks the results); run it with
+ * ./gradlew :app:benchmark --args=FilterEngine
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FilterEngineBenchmark {
+
+    private static final String TYPED = "slim cotton shirt";
+    private static final BooleanSupplier NEVER = () -> false;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<ClothingItem> items;
+    private List<String> keystrokes;
+    private IncrementalFilter warm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = TestCatalog.items(size);
+        keystrokes = TestCatalog.keystrokes(TYPED);
+        warm = new IncrementalFilter();
+        typeInto(warm);
+    }
+
+    @Benchmark
+    public int typeQuery() {
+        return typeInto(new IncrementalFilter());
+    }
+
+    @Benchmark
+    public int retypeQuery() {
+        return typeInto(warm);
+    }
+
+    @Benchmark
+    public int legacyScan() {
+        int matched = 0;
+        for (String keystroke : keystrokes) {
+            String q = keystroke.toLowerCase().trim();
+            List<ClothingItem> result = new ArrayList<>();
+            for (ClothingItem item : items) {
+                if ((item.getName() != null && item.getName().toLowerCase().contains(q))
+                        || (item.getFabric() != null && item.getFabric().toLowerCase().contains(q))
+                        || (item.getFit() != null && item.getFit().toLowerCase().contains(q))
+                        || (item.getCare() != null && item.getCare().toLowerCase().contains(q))
+                        || (item.getCategory() != null && item.getCategory().toLowerCase().contains(q))) {
+                    result.add(item);
+                }
+            }
+            matched += result.size();
+        }
+        return matched;
+    }
+
+    private int typeInto(IncrementalFilter filter) {
+        int matched = 0;
+        for (String keystroke : keystrokes) matched += filter.filter(items, keystroke, NEVER).size();
+        return matched;
+    }
+}
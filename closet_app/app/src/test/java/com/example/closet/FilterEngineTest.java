@@ -0,0 +1,84 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks IncrementalFilter's results against matching every item with SearchQuery, while
+ * typing, backspacing and after the list changes. FilterEngineBenchmark times it.
+ */
+public class FilterEngineTest {
+
+    private static final BooleanSupplier NEVER = () -> false;
+
+    @Test
+    public void matchesAFullScanWhileTypingAndBackspacing() {
+        List<ClothingItem> items = TestCatalog.items(5000);
+        IncrementalFilter filter = new IncrementalFilter();
+        List<String> keystrokes = TestCatalog.keystrokes("slim cotton shirt", "navy  wool");
+        for (String keystroke : keystrokes) {
+            assertEquals(keystroke, scan(items, keystroke), filter.filter(items, keystroke, NEVER));
+        }
+        for (int i = keystrokes.size() - 1; i >= 0; i--) {
+            String keystroke = keystrokes.get(i);
+            assertEquals(keystroke, scan(items, keystroke), filter.filter(items, keystroke, NEVER));
+        }
+    }
+
+    @Test
+    public void startsOverWhenTheListChanges() {
+        List<ClothingItem> items = new ArrayList<>(TestCatalog.items(2000));
+        IncrementalFilter filter = new IncrementalFilter();
+        assertEquals(scan(items, "linen"), filter.filter(items, "linen", NEVER));
+
+        items.set(0, TestCatalog.item("new", "Linen Overshirt", "Shirts", "Linen", "Relaxed"));
+        items.remove(items.size() - 1);
+        List<ClothingItem> result = filter.filter(items, "linen", NEVER);
+        assertEquals(scan(items, "linen"), result);
+        assertEquals("new", result.get(0).getId());
+    }
+
+    @Test
+    public void emptyQueryReturnsTheWholeList() {
+        List<ClothingItem> items = TestCatalog.items(100);
+        assertEquals(items, new IncrementalFilter().filter(items, "  ", NEVER));
+    }
+
+    @Test
+    public void fallsBackToFuzzyMatchesForATypo() {
+        List<ClothingItem> items = TestCatalog.items(2000);
+        assertTrue(scan(items, "cottn").isEmpty());
+        List<ClothingItem> result = new IncrementalFilter().filter(items, "cottn", NEVER);
+        assertFalse(result.isEmpty());
+        for (ClothingItem item : result) assertEquals("Cotton", item.getFabric());
+    }
+
+    @Test
+    public void cancelledFilterReturnsNullAndCachesNothing() {
+        List<ClothingItem> items = TestCatalog.items(2000);
+        IncrementalFilter filter = new IncrementalFilter();
+        assertNull(filter.filter(items, "wool", () -> true));
+
+        List<ClothingItem> result = filter.filter(items, "wool", NEVER);
+        assertEquals(scan(items, "wool"), result);
+        assertSame(result, filter.filter(items, "wool", NEVER));
+    }
+
+    private static List<ClothingItem> scan(List<ClothingItem> items, String query) {
+        SearchQuery compiled = SearchQuery.compile(query);
+        List<ClothingItem> result = new ArrayList<>();
+        for (ClothingItem item : items) {
+            if (compiled.matches(item)) result.add(item);
+        }
+        return result;
+    }
+}
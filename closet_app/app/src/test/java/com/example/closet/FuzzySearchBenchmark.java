@@ -0,0 +1,61 @@
+package com.example.closet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for FuzzySearchIndex: building it, and searching every prefix of a
+ * few misspelled queries as if each were a debounced keystroke. The score of
+ * typeMisspelled is for all of them; divide by the keystroke count for one.
+ *
+ * Not a unit test (FuzzySearchTest checks the results); run it with
+ * ./gradlew :app:benchmark --args=FuzzySearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FuzzySearchBenchmark {
+
+    static final String[] TYPED = {"cotten", "denm jaket", "slim chnos shrt", "machien wash"};
+
+    @Param({"10000", "50000"})
+    public int size;
+
+    private List<ClothingItem> items;
+    private List<String> keystrokes;
+    private FuzzySearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = TestCatalog.items(size);
+        keystrokes = TestCatalog.keystrokes(TYPED);
+        index = new FuzzySearchIndex(items);
+    }
+
+    @Benchmark
+    public FuzzySearchIndex build() {
+        return new FuzzySearchIndex(items);
+    }
+
+    @Benchmark
+    public void typeMisspelled(Blackhole blackhole) {
+        for (String keystroke : keystrokes) blackhole.consume(index.search(keystroke));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Checks FuzzySearchIndex's matching and ranking. FuzzySearchBenchmark times it. */
+public class FuzzySearchTest {
+
+    @Test
+    public void findsMisspelledWords() {
+        FuzzySearchIndex index = new FuzzySearchIndex(Arrays.asList(
+                item("a", "Oxford Shirt", "Cotton", 0, 0),
+                item("b", "Trucker Jacket", "Denim", 0, 0),
+                item("c", "Overshirt", "Wool", 0, 0)));
+
+        assertEquals("a", index.search("cotten").get(0).getId());
+        assertEquals("b", index.search("denm").get(0).getId());
+        assertEquals("b", index.search("trucker denim").get(0).getId());
+        assertTrue(index.search("cotten denim").isEmpty());
+        assertTrue(index.search("xyz").isEmpty());
+    }
+
+    @Test
+    public void ranksBetterMatchesThenPopularItemsFirst() {
+        FuzzySearchIndex index = new FuzzySearchIndex(Arrays.asList(
+                item("typo", "Cottan Tee", "Linen", 5000, 900),
+                item("quiet", "Plain Tee", "Cotton", 1, 0),
+                item("popular", "Pocket Tee", "Cotton", 400, 50)));
+
+        List<ClothingItem> results = index.search("cotton");
+        assertEquals(3, results.size());
+        assertEquals("popular", results.get(0).getId());
+        assertEquals("quiet", results.get(1).getId());
+        assertEquals("typo", results.get(2).getId());
+    }
+
+    @Test
+    public void findsMisspelledQueriesInALargeCatalog() {
+        FuzzySearchIndex index = new FuzzySearchIndex(TestCatalog.items(20_000));
+        for (String query : FuzzySearchBenchmark.TYPED) {
+            assertFalse(query + " should find something", index.search(query).isEmpty());
+        }
+    }
+
+    private static ClothingItem item(String id, String name, String fabric, int views, int likes) {
+        ClothingItem item = TestCatalog.item(id, name, "Shirts", fabric, "Regular");
+        item.setViews(views);
+        item.setLikes(likes);
+        return item;
+    }
+}
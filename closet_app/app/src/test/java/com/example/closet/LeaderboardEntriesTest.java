@@ -0,0 +1,72 @@
+package com.example.closet;
+
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that rankings served from a leaderboard hand out the cached instances, so a
+ * like applied to the cache (as ClothingRepository.setLiked does) shows on screen.
+ */
+public class LeaderboardEntriesTest {
+
+    @Test
+    public void likeOnABoardSourcedItemReachesTheItemOnScreen() {
+        Map<String, ClothingItem> cache = new HashMap<>();
+        List<ClothingItem> board = Arrays.asList(entry("uncached", 20));
+
+        List<ClothingItem> top = LeaderboardEntries.resolve(board, 3, cache, false,
+                entry -> cache.put(entry.getId(), entry));
+        cache.get("uncached").setLikedByCurrentUser(true);
+
+        assertSame(cache.get("uncached"), top.get(0));
+        assertTrue(top.get(0).isLikedByCurrentUser());
+    }
+
+    @Test
+    public void newerEntriesReplaceTheCachedCopyAndOlderOnesDont() {
+        Map<String, ClothingItem> cache = new HashMap<>();
+        ClothingItem staleCopy = entry("edited", 10);
+        ClothingItem freshCopy = entry("unchanged", 30);
+        cache.put(staleCopy.getId(), staleCopy);
+        cache.put(freshCopy.getId(), freshCopy);
+        List<ClothingItem> board = Arrays.asList(entry("edited", 20), entry("unchanged", 20));
+
+        List<ClothingItem> top = LeaderboardEntries.resolve(board, 3, cache, true,
+                entry -> cache.put(entry.getId(), entry));
+
+        assertSame(board.get(0), cache.get("edited"));
+        assertSame(cache.get("edited"), top.get(0));
+        assertSame(freshCopy, top.get(1));
+    }
+
+    @Test
+    public void leavesOutEntriesMissingFromACompleteCatalogAndStopsAtTheLimit() {
+        Map<String, ClothingItem> cache = new HashMap<>();
+        for (String id : new String[]{"a", "c", "d"}) cache.put(id, entry(id, 10));
+        List<ClothingItem> board = Arrays.asList(
+                entry("a", 10), entry("deleted", 10), entry("c", 10), entry("d", 10));
+
+        List<ClothingItem> top = LeaderboardEntries.resolve(board, 2, cache, true,
+                entry -> cache.put(entry.getId(), entry));
+
+        assertEquals(2, top.size());
+        assertSame(cache.get("a"), top.get(0));
+        assertSame(cache.get("c"), top.get(1));
+    }
+
+    private static ClothingItem entry(String id, long updatedAtSeconds) {
+        ClothingItem item = TestCatalog.item(id, "Item " + id, "Shirts", "Cotton", "Slim");
+        item.setUpdatedAt(new Timestamp(updatedAtSeconds, 0));
+        return item;
+    }
+}
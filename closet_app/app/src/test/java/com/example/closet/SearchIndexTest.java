@@ -0,0 +1,46 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Checks SearchIndex's prefix matching and how it treats queries without words. */
+public class SearchIndexTest {
+
+    @Test
+    public void matchesEveryWordAsAPrefix() {
+        SearchIndex index = new SearchIndex();
+        index.putAll(Arrays.asList(
+                TestCatalog.item("b", "Slim Oxford Shirt", "Shirts", "Cotton", "Slim"),
+                TestCatalog.item("a", "Relaxed Chinos", "Pants", "Cotton", "Relaxed"),
+                TestCatalog.item("c", "Wool Blazer", "Jackets", "Wool", "Regular")));
+
+        assertEquals(Arrays.asList("a", "b"), ids(index.search("COT")));
+        assertEquals(Arrays.asList("b"), ids(index.search("cot sli")));
+        assertTrue(index.search("cot wool").isEmpty());
+
+        index.remove("b");
+        assertEquals(Arrays.asList("a"), ids(index.search("cotton")));
+    }
+
+    @Test
+    public void queryWithoutWordsMatchesNothing() {
+        SearchIndex index = new SearchIndex();
+        index.putAll(TestCatalog.items(100));
+
+        assertTrue(index.search("").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+        assertTrue(index.search("!!").isEmpty());
+        assertTrue(index.search("-").isEmpty());
+    }
+
+    private static List<String> ids(List<ClothingItem> items) {
+        String[] ids = new String[items.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = items.get(i).getId();
+        return Arrays.asList(ids);
+    }
+}
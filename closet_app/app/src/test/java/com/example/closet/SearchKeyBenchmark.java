@@ -0,0 +1,81 @@
+package com.example.closet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing the old per-keystroke matching, which lowercased every
+ * field of every item, with matching against the precomputed
+ * ClothingItem.getSearchKey(). Each operation rescans the whole list once per
+ * character of a typed query, so only the matching itself is measured. The sizes
+ * follow what the screens show: Top Picks and Most Viewed (10), Favourites (200) and
+ * the full list (2000). Add -prof gc to compare allocations.
+ *
+ * Not a unit test (SearchKeyTest checks the matching); run it with
+ * ./gradlew :app:benchmark --args=SearchKey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SearchKeyBenchmark {
+
+    private static final String TYPED = "machine wash";
+
+    @Param({"10", "200", "2000"})
+    public int size;
+
+    private List<ClothingItem> items;
+    private List<String> keystrokes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = TestCatalog.items(size);
+        keystrokes = TestCatalog.keystrokes(TYPED);
+    }
+
+    @Benchmark
+    public int lowercaseFields() {
+        int matches = 0;
+        for (String keystroke : keystrokes) {
+            String q = keystroke.toLowerCase().trim();
+            for (ClothingItem item : items) {
+                if ((item.getName() != null && item.getName().toLowerCase().contains(q))
+                        || (item.getFabric() != null && item.getFabric().toLowerCase().contains(q))
+                        || (item.getFit() != null && item.getFit().toLowerCase().contains(q))
+                        || (item.getCare() != null && item.getCare().toLowerCase().contains(q))
+                        || (item.getCategory() != null && item.getCategory().toLowerCase().contains(q))) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int searchKey() {
+        int matches = 0;
+        for (String keystroke : keystrokes) {
+            SearchQuery query = SearchQuery.compile(keystroke);
+            for (ClothingItem item : items) {
+                if (query.matches(item)) matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that matching on ClothingItem.getSearchKey() finds the same items as looking
+ * for each word in the lowercased fields. SearchKeyBenchmark times both.
+ */
+public class SearchKeyTest {
+
+    @Test
+    public void normalizesCaseAccentsAndWhitespace() {
+        assertEquals("creme cafe", SearchText.normalize("  Crème \t CAFÉ\n"));
+        assertEquals("", SearchText.normalize(null));
+        assertEquals("slim\nlinen", SearchText.key("Slim", "Linen"));
+    }
+
+    @Test
+    public void searchKeyMatchesLikeLowercasedFields() {
+        for (ClothingItem item : TestCatalog.items(2000)) {
+            for (String query : TestCatalog.keystrokes("machine wash", "slim navy", "oversized jeans")) {
+                assertEquals(query, fieldsMatch(item, query), SearchQuery.compile(query).matches(item));
+            }
+        }
+    }
+
+    /** Every word of the query is in one of the fields the search key is built from. */
+    private static boolean fieldsMatch(ClothingItem item, String query) {
+        String[] fields = {item.getName(), item.getFabric(), item.getFit(), item.getCare(), item.getCategory()};
+        for (String word : query.toLowerCase().trim().split("\\s+")) {
+            boolean found = false;
+            for (String field : fields) {
+                if (field != null && field.toLowerCase().contains(word)) found = true;
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
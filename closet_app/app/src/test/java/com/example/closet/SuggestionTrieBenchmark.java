@@ -0,0 +1,77 @@
+package com.example.closet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for SuggestionTrie on a catalog's terms: building it, loading the
+ * saved copy SuggestionStore reads at startup, and looking up every prefix of a few
+ * typed queries as the autocomplete asks for them. The score of typeQueries is for
+ * all of them; divide by the keystroke count for one.
+ *
+ * Not a unit test (SuggestionTrieTest checks the results); run it with
+ * ./gradlew :app:benchmark --args=SuggestionTrie
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SuggestionTrieBenchmark {
+
+    static final String[] TYPED = {"cotton", "denim jacket", "slim chinos", "machine wash", "burgundy"};
+    private static final int LIMIT = 6;
+
+    @Param({"10000", "50000"})
+    public int size;
+
+    private List<ClothingItem> items;
+    private List<String> keystrokes;
+    private SuggestionTrie trie;
+    private byte[] saved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        items = TestCatalog.items(size);
+        keystrokes = TestCatalog.keystrokes(TYPED);
+        trie = build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        trie.writeTo(new DataOutputStream(bytes));
+        saved = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public SuggestionTrie build() {
+        return new SuggestionTrie.Builder().addItems(items).build();
+    }
+
+    @Benchmark
+    public SuggestionTrie load() throws IOException {
+        return SuggestionTrie.readFrom(new DataInputStream(new ByteArrayInputStream(saved)));
+    }
+
+    @Benchmark
+    public void typeQueries(Blackhole blackhole) {
+        for (String keystroke : keystrokes) blackhole.consume(trie.suggest(keystroke, LIMIT));
+    }
+}
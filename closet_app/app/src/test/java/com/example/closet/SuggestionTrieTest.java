@@ -0,0 +1,72 @@
+package com.example.closet;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks SuggestionTrie's ranking and that it survives a save and load unchanged.
+ * SuggestionTrieBenchmark times it.
+ */
+public class SuggestionTrieTest {
+
+    private static final int LIMIT = 6;
+
+    @Test
+    public void ranksRecentQueriesThenPopularTerms() {
+        SuggestionTrie trie = new SuggestionTrie.Builder()
+                .addTerm("Cotton", 10)
+                .addTerm("Corduroy", 50)
+                .addTerm("Crème Shirt", 5)
+                .addRecentQuery("coat")
+                .build();
+
+        assertEquals(Arrays.asList("coat", "Corduroy", "Cotton"), trie.suggest("co", LIMIT));
+        assertEquals(Arrays.asList("Crème Shirt"), trie.suggest("CRE", LIMIT));
+        assertEquals(Arrays.asList("coat", "Corduroy"), trie.suggest("c", 2));
+        assertTrue(trie.suggest("x", LIMIT).isEmpty());
+        assertTrue(trie.suggest("", LIMIT).isEmpty());
+
+        SuggestionTrie again = trie.toBuilder().addRecentQuery("cotton").build();
+        assertEquals(Arrays.asList("cotton", "coat", "Corduroy"), again.suggest("co", LIMIT));
+    }
+
+    @Test
+    public void keepsOnlyTheNewestRecentQueries() {
+        SuggestionTrie.Builder builder = new SuggestionTrie.Builder().addTerm("query catalog", 1);
+        for (int i = 0; i < SuggestionTrie.MAX_RECENT + 5; i++) builder.addRecentQuery("query " + i);
+        SuggestionTrie trie = builder.build();
+
+        List<String> suggestions = trie.suggest("query", 100);
+        assertEquals(SuggestionTrie.MAX_RECENT + 1, suggestions.size());
+        assertEquals("query " + (SuggestionTrie.MAX_RECENT + 4), suggestions.get(0));
+        assertEquals("query catalog", suggestions.get(suggestions.size() - 1));
+        assertEquals(SuggestionTrie.MAX_RECENT, trie.recentQueriesBuilder().build().size());
+    }
+
+    @Test
+    public void suggestsTheSameAfterSaveAndLoad() throws IOException {
+        SuggestionTrie built = new SuggestionTrie.Builder()
+                .addItems(TestCatalog.items(5000))
+                .addRecentQuery("navy blazer")
+                .build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        built.writeTo(new DataOutputStream(bytes));
+        SuggestionTrie loaded = SuggestionTrie.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(built.size(), loaded.size());
+        for (String keystroke : TestCatalog.keystrokes(SuggestionTrieBenchmark.TYPED)) {
+            assertEquals(keystroke, built.suggest(keystroke, LIMIT), loaded.suggest(keystroke, LIMIT));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.closet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic catalogs shared by the unit tests and the JMH benchmarks. The same size
+ * always gives the same items, with search keys already built as ClothingItemMapper
+ * builds them while loading.
+ */
+final class TestCatalog {
+
+    static final String[] COLOURS = {"Black", "White", "Navy", "Olive", "Rust", "Sand", "Grey", "Burgundy"};
+    static final String[] STYLES = {"Everyday", "Classic", "Oversized", "Tailored", "Vintage", "Essential"};
+    static final String[] GARMENTS = {"Shirt", "Jacket", "Chinos", "Jeans", "Hoodie", "Blazer", "Sweater"};
+    static final String[] FABRICS = {"Cotton", "Linen", "Wool", "Denim", "Silk", "Polyester", "Cashmere"};
+    static final String[] FITS = {"Regular", "Slim", "Relaxed", "Loose"};
+    static final String[] CARE = {"Machine wash cold", "Hand wash only", "Dry clean", "Tumble dry low"};
+    static final String[] CATEGORIES = {"Shirts", "Pants", "Jackets"};
+    static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+
+    private TestCatalog() {
+    }
+
+    static List<ClothingItem> items(int size) {
+        Random random = new Random(42);
+        List<ClothingItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = pick(random, COLOURS) + " " + pick(random, STYLES) + " "
+                    + pick(random, GARMENTS) + " " + (1000 + random.nextInt(90_000));
+            List<String> sizes = new ArrayList<>();
+            for (String s : SIZES) {
+                if (random.nextInt(3) > 0) sizes.add(s);
+            }
+            ClothingItem item = new ClothingItem(name, pick(random, CATEGORIES), pick(random, FABRICS),
+                    pick(random, FITS), pick(random, CARE), null, sizes);
+            item.setId(String.format("item%06d", i));
+            item.setViews(random.nextInt(5000));
+            item.setLikes(random.nextInt(500));
+            item.getSearchKey();
+            items.add(item);
+        }
+        return items;
+    }
+
+    /** A hand-made item for tests that need specific values. */
+    static ClothingItem item(String id, String name, String category, String fabric, String fit,
+                             String... sizes) {
+        ClothingItem item = new ClothingItem(name, category, fabric, fit, "Machine wash cold",
+                null, new ArrayList<>(Arrays.asList(sizes)));
+        item.setId(id);
+        return item;
+    }
+
+    /** Every prefix of each query, as a search bar sees them typed. */
+    static List<String> keystrokes(String... queries) {
+        List<String> keystrokes = new ArrayList<>();
+        for (String query : queries) {
+            for (int end = 1; end <= query.length(); end++) keystrokes.add(query.substring(0, end));
+        }
+        return keystrokes;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}